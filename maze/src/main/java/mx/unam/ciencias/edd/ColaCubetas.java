@@ -0,0 +1,169 @@
+package mx.unam.ciencias.edd;
+
+import java.util.Arrays;
+
+/**
+ * <p>Clase para colas de prioridades por cubetas (algoritmo de Dial).</p>
+ *
+ * <p>Los elementos son los enteros de 0 a <i>n</i> - 1 y se ordenan por el
+ * valor entero que tienen en un arreglo de prioridades externo, como en {@link
+ * MonticuloIndexado}. La cola sirve cuando la prioridad mínima nunca decrece y
+ * todas las prioridades en la cola están a lo más a <i>C</i> de la mínima, como
+ * en el algoritmo de Dijkstra con pesos enteros entre 1 y <i>C</i>. Se usan
+ * al menos <i>C</i> + 1 cubetas circulares (una potencia de dos, para
+ * obtener la cubeta con una máscara), cada una una lista doblemente ligada
+ * guardada en arreglos de enteros, así que agregar, reordenar y eliminar
+ * cuestan tiempo constante amortizado.</p>
+ */
+public class ColaCubetas implements ColaIndexada {
+
+    /* Las prioridades de los elementos. */
+    private long[] prioridades;
+    /* El primer elemento de cada cubeta, -1 si está vacía. */
+    private int[] cabezas;
+    /* El siguiente y el anterior de cada elemento en su cubeta. */
+    private int[] siguientes;
+    private int[] anteriores;
+    /* La cubeta de cada elemento, -1 si no está en la cola. */
+    private int[] cubetas;
+    /* La diferencia máxima entre una prioridad y la mínima. */
+    private int rango;
+    /* La máscara para obtener la cubeta de una prioridad. */
+    private int mascara;
+    /* La prioridad mínima de la cola, -1 si nunca se ha agregado nada; solo avanza. */
+    private long minimo;
+    /* El número de elementos en la cola. */
+    private int elementos;
+
+    /**
+     * Construye una cola vacía para los elementos de 0 a
+     * <code>prioridades.length</code> - 1.
+     * @param prioridades el arreglo de prioridades de los elementos.
+     * @param rango la diferencia máxima entre la prioridad de un elemento en
+     *        la cola y la mínima.
+     * @throws IllegalArgumentException si el rango no es positivo.
+     */
+    public ColaCubetas(long[] prioridades, int rango) {
+        if(rango < 1)
+            throw new IllegalArgumentException("El rango debe ser positivo.");
+        this.prioridades = prioridades;
+        this.rango = rango;
+        mascara = Integer.highestOneBit(rango) * 2 - 1;
+        cabezas = new int[mascara + 1];
+        siguientes = new int[prioridades.length];
+        anteriores = new int[prioridades.length];
+        cubetas = new int[prioridades.length];
+        Arrays.fill(cabezas, -1);
+        Arrays.fill(cubetas, -1);
+        minimo = -1;
+    }
+
+    /* Saca un elemento de su cubeta. */
+    private void saca(int elemento) {
+        int cubeta = cubetas[elemento];
+        if(anteriores[elemento] == -1)
+            cabezas[cubeta] = siguientes[elemento];
+        else
+            siguientes[anteriores[elemento]] = siguientes[elemento];
+        if(siguientes[elemento] != -1)
+            anteriores[siguientes[elemento]] = anteriores[elemento];
+        cubetas[elemento] = -1;
+        elementos--;
+    }
+
+    /**
+     * Agrega un elemento a la cola con su prioridad actual.
+     * @param elemento el elemento a agregar.
+     * @throws IllegalArgumentException si el elemento ya está en la cola o su
+     *         prioridad está fuera del rango de la cola.
+     */
+    @Override public void agrega(int elemento) {
+        if(cubetas[elemento] != -1)
+            throw new IllegalArgumentException("El elemento ya está en la cola.");
+        long prioridad = prioridades[elemento];
+        if(minimo == -1)
+            minimo = prioridad;
+        if(prioridad < 0 || prioridad < minimo || prioridad - minimo > rango)
+            throw new IllegalArgumentException("La prioridad está fuera del rango de la cola.");
+        int cubeta = (int) prioridad & mascara;
+        siguientes[elemento] = cabezas[cubeta];
+        anteriores[elemento] = -1;
+        if(cabezas[cubeta] != -1)
+            anteriores[cabezas[cubeta]] = elemento;
+        cabezas[cubeta] = elemento;
+        cubetas[elemento] = cubeta;
+        elementos++;
+    }
+
+    /**
+     * Reordena un elemento cuya prioridad cambió. Si el elemento no está en la
+     * cola, lo agrega.
+     * @param elemento el elemento a reordenar.
+     * @throws IllegalArgumentException si la prioridad del elemento está fuera
+     *         del rango de la cola.
+     */
+    @Override public void reordena(int elemento) {
+        if(cubetas[elemento] != -1)
+            saca(elemento);
+        agrega(elemento);
+    }
+
+    /**
+     * Elimina un elemento de prioridad mínima de la cola.
+     * @return un elemento de prioridad mínima.
+     * @throws IllegalStateException si la cola es vacía.
+     */
+    @Override public int elimina() {
+        if(elementos == 0)
+            throw new IllegalStateException("La cola es vacía.");
+        int cubeta = (int) minimo & mascara;
+        while(cabezas[cubeta] == -1) {
+            minimo++;
+            cubeta = (cubeta + 1) & mascara;
+        }
+        int elemento = cabezas[cubeta];
+        saca(elemento);
+        return elemento;
+    }
+
+    /**
+     * Elimina todos los elementos de la cola, en tiempo proporcional al número
+     * de elementos y de cubetas, para volver a usarla.
+     */
+    @Override public void limpia() {
+        for(int cubeta = 0; cubeta < cabezas.length; cubeta++) {
+            for(int elemento = cabezas[cubeta]; elemento != -1; elemento = siguientes[elemento])
+                cubetas[elemento] = -1;
+            cabezas[cubeta] = -1;
+        }
+        elementos = 0;
+        minimo = -1;
+    }
+
+    /**
+     * Nos dice si un elemento está en la cola.
+     * @param elemento el elemento.
+     * @return <code>true</code> si el elemento está en la cola,
+     *         <code>false</code> en otro caso.
+     */
+    public boolean contiene(int elemento) {
+        return cubetas[elemento] != -1;
+    }
+
+    /**
+     * Nos dice si la cola es vacía.
+     * @return <code>true</code> si ya no hay elementos en la cola,
+     *         <code>false</code> en otro caso.
+     */
+    @Override public boolean esVacia() {
+        return elementos == 0;
+    }
+
+    /**
+     * Regresa el número de elementos en la cola.
+     * @return el número de elementos en la cola.
+     */
+    @Override public int getElementos() {
+        return elementos;
+    }
+}
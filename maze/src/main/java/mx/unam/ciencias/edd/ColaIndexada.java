@@ -0,0 +1,51 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * <p>Interfaz para colas de prioridades de los enteros de 0 a <i>n</i> - 1,
+ * ordenados por un arreglo de prioridades externo.</p>
+ *
+ * <p>Como en {@link MonticuloDijkstra}, quien usa la cola modifica la
+ * prioridad de un elemento y después lo reordena, así que el algoritmo de
+ * Dijkstra puede usar cualquier implementación.</p>
+ */
+public interface ColaIndexada {
+
+    /**
+     * Agrega un elemento a la cola con su prioridad actual.
+     * @param elemento el elemento a agregar.
+     * @throws IllegalArgumentException si el elemento ya está en la cola.
+     */
+    public void agrega(int elemento);
+
+    /**
+     * Reordena un elemento cuya prioridad disminuyó. Si el elemento no está
+     * en la cola, lo agrega.
+     * @param elemento el elemento a reordenar.
+     */
+    public void reordena(int elemento);
+
+    /**
+     * Elimina un elemento de prioridad mínima de la cola.
+     * @return un elemento de prioridad mínima.
+     * @throws IllegalStateException si la cola es vacía.
+     */
+    public int elimina();
+
+    /**
+     * Elimina todos los elementos de la cola para volver a usarla.
+     */
+    public void limpia();
+
+    /**
+     * Nos dice si la cola es vacía.
+     * @return <code>true</code> si ya no hay elementos en la cola,
+     *         <code>false</code> en otro caso.
+     */
+    public boolean esVacia();
+
+    /**
+     * Regresa el número de elementos en la cola.
+     * @return el número de elementos en la cola.
+     */
+    public int getElementos();
+}
@@ -0,0 +1,88 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * <p>Clase para conjuntos disjuntos de enteros (unión-búsqueda).</p>
+ *
+ * <p>Los elementos son los enteros de 0 a <i>n</i> - 1 y al inicio cada uno
+ * está en su propio conjunto. Se une por rango y se comprimen las rutas a la
+ * mitad al buscar, así que cada operación cuesta tiempo casi constante
+ * amortizado. Los padres se guardan en un arreglo de enteros y los rangos en
+ * uno de bytes, sin crear objetos por elemento.</p>
+ */
+public class ConjuntosDisjuntos {
+
+    /* El padre de cada elemento; las raíces son su propio padre. */
+    private int[] padres;
+    /* El rango de cada raíz. */
+    private byte[] rangos;
+    /* El número de conjuntos. */
+    private int conjuntos;
+
+    /**
+     * Construye <i>n</i> conjuntos, cada uno con un solo elemento.
+     * @param n el número de elementos.
+     */
+    public ConjuntosDisjuntos(int n) {
+        padres = new int[n];
+        rangos = new byte[n];
+        for(int i = 0; i < n; i++)
+            padres[i] = i;
+        conjuntos = n;
+    }
+
+    /**
+     * Regresa el representante del conjunto de un elemento.
+     * @param elemento el elemento.
+     * @return el representante del conjunto del elemento.
+     */
+    public int busca(int elemento) {
+        while(padres[elemento] != elemento) {
+            padres[elemento] = padres[padres[elemento]];
+            elemento = padres[elemento];
+        }
+        return elemento;
+    }
+
+    /**
+     * Une los conjuntos de dos elementos.
+     * @param a un elemento.
+     * @param b otro elemento.
+     * @return <code>true</code> si los elementos estaban en conjuntos
+     *         distintos, <code>false</code> si ya estaban en el mismo.
+     */
+    public boolean une(int a, int b) {
+        a = busca(a);
+        b = busca(b);
+        if(a == b)
+            return false;
+        if(rangos[a] < rangos[b]) {
+            int t = a;
+            a = b;
+            b = t;
+        }
+        padres[b] = a;
+        if(rangos[a] == rangos[b])
+            rangos[a]++;
+        conjuntos--;
+        return true;
+    }
+
+    /**
+     * Nos dice si dos elementos están en el mismo conjunto.
+     * @param a un elemento.
+     * @param b otro elemento.
+     * @return <code>true</code> si los elementos están en el mismo conjunto,
+     *         <code>false</code> en otro caso.
+     */
+    public boolean mismoConjunto(int a, int b) {
+        return busca(a) == busca(b);
+    }
+
+    /**
+     * Regresa el número de conjuntos.
+     * @return el número de conjuntos.
+     */
+    public int getConjuntos() {
+        return conjuntos;
+    }
+}
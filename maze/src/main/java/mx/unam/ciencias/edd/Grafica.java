@@ -573,12 +573,16 @@ public class Grafica<T> implements Coleccion<T> {
             vertice.distancia = Double.POSITIVE_INFINITY;
         });
         verticeOrigen.distancia = 0;
-        if(aristas > n * (n - 1) / 2 - n) 
+        // Se usa aritmética de long para que n * (n - 1) no se desborde.
+        if(aristas > (long) n * (n - 1) / 2 - n) 
             monticulo = new MonticuloArreglo<>(vertices, vertices.getElementos());
         else 
             monticulo = new MonticuloMinimo<>(vertices, vertices.getElementos());
         while(!monticulo.esVacia()) {
             Vertice actual = monticulo.elimina();
+            // La distancia del destino ya es definitiva.
+            if(actual == verticeDestino)
+                break;
             for(Vecino v : actual.vecinos) {
                 if(v.vecino.distancia > actual.distancia + v.peso) {
                     v.vecino.distancia = actual.distancia + v.peso;
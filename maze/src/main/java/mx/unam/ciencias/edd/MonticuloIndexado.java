@@ -0,0 +1,161 @@
+package mx.unam.ciencias.edd;
+
+import java.util.Arrays;
+
+/**
+ * <p>Clase para montículos mínimos indexados de enteros.</p>
+ *
+ * <p>Los elementos son los enteros de 0 a <i>n</i> - 1 y se ordenan por el
+ * valor que tienen en un arreglo de prioridades externo. Como en {@link
+ * MonticuloDijkstra}, quien usa el montículo modifica la prioridad de un
+ * elemento y después lo reordena. No se crean objetos por elemento: la
+ * posición de cada elemento se guarda en un arreglo de enteros.</p>
+ */
+public class MonticuloIndexado implements ColaIndexada {
+
+    /* Las prioridades de los elementos. */
+    private long[] prioridades;
+    /* El árbol del montículo. */
+    private int[] arbol;
+    /* La posición de cada elemento en el árbol, -1 si no está. */
+    private int[] posiciones;
+    /* El número de elementos en el montículo. */
+    private int elementos;
+
+    /**
+     * Construye un montículo vacío para los elementos de 0 a
+     * <code>prioridades.length</code> - 1.
+     * @param prioridades el arreglo de prioridades de los elementos.
+     */
+    public MonticuloIndexado(long[] prioridades) {
+        this.prioridades = prioridades;
+        arbol = new int[prioridades.length];
+        posiciones = new int[prioridades.length];
+        Arrays.fill(posiciones, -1);
+    }
+
+    /* Sube el elemento en la posición dada mientras sea menor que su padre. */
+    private void acomodaHaciaArriba(int indice) {
+        int elemento = arbol[indice];
+        long prioridad = prioridades[elemento];
+        while(indice > 0) {
+            int padre = (indice - 1) / 2;
+            if(prioridades[arbol[padre]] <= prioridad)
+                break;
+            arbol[indice] = arbol[padre];
+            posiciones[arbol[indice]] = indice;
+            indice = padre;
+        }
+        arbol[indice] = elemento;
+        posiciones[elemento] = indice;
+    }
+
+    /* Baja el elemento en la posición dada mientras sea mayor que sus hijos. */
+    private void acomodaHaciaAbajo(int indice) {
+        int elemento = arbol[indice];
+        long prioridad = prioridades[elemento];
+        while(true) {
+            int menor = indice * 2 + 1;
+            if(menor >= elementos)
+                break;
+            if(menor + 1 < elementos && prioridades[arbol[menor + 1]] < prioridades[arbol[menor]])
+                menor++;
+            if(prioridad <= prioridades[arbol[menor]])
+                break;
+            arbol[indice] = arbol[menor];
+            posiciones[arbol[indice]] = indice;
+            indice = menor;
+        }
+        arbol[indice] = elemento;
+        posiciones[elemento] = indice;
+    }
+
+    /**
+     * Agrega un elemento al montículo con su prioridad actual.
+     * @param elemento el elemento a agregar.
+     * @throws IllegalArgumentException si el elemento ya está en el montículo.
+     */
+    @Override public void agrega(int elemento) {
+        if(posiciones[elemento] != -1)
+            throw new IllegalArgumentException("El elemento ya está en el montículo.");
+        arbol[elementos] = elemento;
+        acomodaHaciaArriba(elementos++);
+    }
+
+    /**
+     * Elimina todos los elementos del montículo, en tiempo proporcional al
+     * número de elementos, para volver a usarlo.
+     */
+    @Override public void limpia() {
+        for(int i = 0; i < elementos; i++)
+            posiciones[arbol[i]] = -1;
+        elementos = 0;
+    }
+
+    /**
+     * Reordena un elemento cuya prioridad disminuyó. Si el elemento no está en
+     * el montículo, lo agrega.
+     * @param elemento el elemento a reordenar.
+     */
+    @Override public void reordena(int elemento) {
+        if(posiciones[elemento] == -1)
+            agrega(elemento);
+        else
+            acomodaHaciaArriba(posiciones[elemento]);
+    }
+
+    /**
+     * Elimina el elemento de menor prioridad del montículo.
+     * @return el elemento de menor prioridad.
+     * @throws IllegalStateException si el montículo es vacío.
+     */
+    @Override public int elimina() {
+        if(elementos == 0)
+            throw new IllegalStateException("El montículo es vacío.");
+        int minimo = arbol[0];
+        posiciones[minimo] = -1;
+        if(--elementos > 0) {
+            arbol[0] = arbol[elementos];
+            acomodaHaciaAbajo(0);
+        }
+        return minimo;
+    }
+
+    /**
+     * Regresa el elemento de menor prioridad del montículo sin eliminarlo.
+     * @return el elemento de menor prioridad.
+     * @throws IllegalStateException si el montículo es vacío.
+     */
+    public int minimo() {
+        if(elementos == 0)
+            throw new IllegalStateException("El montículo es vacío.");
+        return arbol[0];
+    }
+
+    /**
+     * Nos dice si un elemento está en el montículo.
+     * @param elemento el elemento.
+     * @return <code>true</code> si el elemento está en el montículo,
+     *         <code>false</code> en otro caso.
+     */
+    public boolean contiene(int elemento) {
+        return posiciones[elemento] != -1;
+    }
+
+    /**
+     * Nos dice si el montículo es vacío.
+     * @return <code>true</code> si ya no hay elementos en el montículo,
+     *         <code>false</code> en otro caso.
+     */
+    @Override public boolean esVacia() {
+        return elementos == 0;
+    }
+
+    /**
+     * Regresa el número de elementos en el montículo.
+     * @return el número de elementos en el montículo.
+     */
+    @Override public int getElementos() {
+        return elementos;
+    }
+}
@@ -7,10 +7,35 @@ public enum Accion {
      * Indica que se va a generar un laberinto.
      */
     GENERA,
+    /**
+     * Indica que se van a generar varios laberintos, uno por semilla.
+     */
+    GENERA_LOTE,
     /**
      * Indica que se va a resolver un laberinto.
      */
     RESUELVE,
+    /**
+     * Indica que se van a resolver varios laberintos de un directorio o de
+     * la entrada estándar.
+     */
+    RESUELVE_LOTE,
+    /**
+     * Indica que se van a resolver laberintos recibidos por un socket.
+     */
+    SIRVE,
+    /**
+     * Indica que se va a resolver un laberinto mapeado desde un archivo.
+     */
+    RESUELVE_MAPEADO,
+    /**
+     * Indica que se van a comparar los tiempos de los algoritmos que resuelven un laberinto.
+     */
+    COMPARA,
+    /**
+     * Indica que se van a comparar los algoritmos que generan un laberinto.
+     */
+    COMPARA_GENERADORES,
     /**
      * Acción por omisión.
      */
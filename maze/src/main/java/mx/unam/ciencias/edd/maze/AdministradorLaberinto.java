@@ -1,8 +1,44 @@
 package mx.unam.ciencias.edd.maze;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
 /**
  * <p>Clase para realizar las operaciones del laberinto.</p>
  */
 public class AdministradorLaberinto {
+    // Veces que se repite cada algoritmo al comparar; se reporta el mejor tiempo.
+    private static final int REPETICIONES = 3;
+    // Laberintos del lote en proceso por cada hilo, para no guardar todo el lote.
+    private static final int PENDIENTES_POR_HILO = 2;
+    // Tamaño del buffer con el que se escribe el svg.
+    private static final int BUFFER_SVG = 1 << 16;
+
     /* No es deseable hacer objetos de esta clase. */
     private AdministradorLaberinto() {}
 
@@ -16,18 +52,551 @@ public class AdministradorLaberinto {
         long semilla = configuracion.obtenerSemilla();
         int ancho = configuracion.obtenerAncho();
         int alto = configuracion.obtenerAlto();
-        Laberinto laberinto = new Laberinto(semilla, ancho, alto);
-        Cuarto[][] cuartos = laberinto.obtenerCuartos();
-        configuracion.establecerDatos(cuartos);
+        int hilos = configuracion.obtenerHilos();
+        Generador generador = configuracion.obtenerTipo().creaGenerador();
+        Laberinto laberinto = new Laberinto(semilla, ancho, alto, generador,
+                                            configuracion.obtenerAleatorio(), hilos);
+        configuracion.establecerDatos(laberinto.obtenerCuadricula());
+    }
+
+    /**
+     * Genera un laberinto dada una configuración y lo escribe en un canal.
+     * Con el generador de Eller en un solo hilo el laberinto se escribe
+     * renglón por renglón sin guardarlo en memoria; con los demás se genera
+     * completo y después se escribe.
+     * @param configuracion De donde se obtienen los datos del laberinto.
+     * @param canal El canal donde se escribe.
+     * @throws IOException Si ocurrió un error al escribir.
+     */
+    public static void escribe(Configuracion configuracion, WritableByteChannel canal) throws IOException {
+        if(configuracion.obtenerTipo() == TipoGenerador.ELLER && configuracion.obtenerHilos() == 1) {
+            Aleatorio aleatorio = configuracion.obtenerAleatorio().crea(configuracion.obtenerSemilla());
+            new GeneradorEller().escribe(canal, aleatorio,
+                                         configuracion.obtenerAncho(), configuracion.obtenerAlto());
+            return;
+        }
+        genera(configuracion);
+        LectorEscritor.escribir(canal, configuracion.obtenerCuadricula());
+    }
+
+    /**
+     * Genera un lote de laberintos, uno por cada semilla a partir de la de la
+     * configuración, repartidos en un conjunto de hilos; cada laberinto se
+     * genera en un solo hilo, así que es el mismo que se obtiene al generarlo
+     * por separado con su semilla y un hilo, incluso con Eller, que por
+     * separado se escribe por renglones sin guardarlo en memoria (ver {@link
+     * GeneradorEller#escribe}). Si la configuración tiene un directorio
+     * cada laberinto se escribe en su propio archivo; si no, se escriben
+     * concatenados en el canal en el orden de las semillas.
+     * @param configuracion De donde se obtienen los datos del lote.
+     * @param canal El canal donde se escribe el lote si no hay directorio.
+     * @return Un resumen con la latencia por laberinto y el rendimiento total.
+     * @throws IOException Si ocurrió un error al escribir.
+     * @throws IllegalStateException Si se interrumpió la generación.
+     */
+    public static String generaLote(Configuracion configuracion, WritableByteChannel canal) throws IOException {
+        long semilla = configuracion.obtenerSemilla();
+        int ancho = configuracion.obtenerAncho();
+        int alto = configuracion.obtenerAlto();
+        int cantidad = configuracion.obtenerCantidad();
+        int hilos = configuracion.obtenerHilos();
+        Generador generador = configuracion.obtenerTipo().creaGenerador();
+        TipoAleatorio aleatorio = configuracion.obtenerAleatorio();
+        Path directorio = configuracion.obtenerDirectorio() == null ? null
+                          : Files.createDirectories(Paths.get(configuracion.obtenerDirectorio()));
+        // Lo que tarda cada laberinto en el hilo que lo genera.
+        long[] latencias = new long[cantidad];
+        ArrayDeque<Future<Cuadricula>> pendientes = new ArrayDeque<>();
+        ExecutorService conjunto = Executors.newFixedThreadPool(hilos);
+        long inicio = System.nanoTime();
+        try {
+            int siguiente = 0;
+            for(int i = 0; i < cantidad; i++) {
+                // Se mantiene un número acotado de laberintos en proceso.
+                while(siguiente < cantidad && siguiente - i < hilos * PENDIENTES_POR_HILO) {
+                    int indice = siguiente++;
+                    pendientes.add(conjunto.submit(() -> {
+                        long comienzo = System.nanoTime();
+                        Laberinto laberinto = new Laberinto(semilla + indice, ancho, alto, generador, aleatorio, 1);
+                        Cuadricula cuadricula = laberinto.obtenerCuadricula();
+                        if(directorio != null)
+                            escribeArchivo(directorio.resolve("laberinto-" + (semilla + indice) + ".mze"), cuadricula);
+                        latencias[indice] = System.nanoTime() - comienzo;
+                        return directorio == null ? cuadricula : null;
+                    }));
+                }
+                Cuadricula cuadricula = pendientes.remove().get();
+                if(cuadricula != null)
+                    LectorEscritor.escribir(canal, cuadricula);
+            }
+        } catch(InterruptedException e) {
+            throw new IllegalStateException("Se interrumpió la generación del lote.", e);
+        } catch(ExecutionException e) {
+            if(e.getCause() instanceof IOException)
+                throw (IOException) e.getCause();
+            throw new IllegalStateException("No se pudo generar el lote de laberintos.", e.getCause());
+        } finally {
+            conjunto.shutdownNow();
+        }
+        long total = System.nanoTime() - inicio;
+        return resumenLote(latencias, total, (long) cantidad * ancho * alto);
+    }
+
+    /**
+     * Resuelve un lote de laberintos en un conjunto de hilos con el algoritmo
+     * de la configuración. Los laberintos son los archivos ".mze" del
+     * directorio de entrada, en orden por nombre, o los que vienen
+     * concatenados en el canal si la entrada es "-", que se nombran por su
+     * posición. Las soluciones se escriben en el formato de la
+     * configuración. Si la configuración tiene un directorio la solución de
+     * cada laberinto se escribe en un archivo con su nombre; si no, las
+     * soluciones se escriben en la salida en el orden de la entrada. Un
+     * laberinto inválido se reporta en el error estándar y no detiene el lote;
+     * en el canal, uno con formato inválido o incompleto es el último que se
+     * lee, porque no se sabe dónde empieza el siguiente.
+     * @param configuracion De donde se obtienen los datos del lote.
+     * @param canal El canal de donde se leen los laberintos si la entrada es "-".
+     * @param salida Donde se escriben las soluciones si no hay directorio.
+     * @return Un resumen con la latencia por laberinto y el rendimiento total.
+     * @throws IOException Si ocurrió un error al leer o escribir.
+     * @throws IllegalStateException Si se interrumpió la resolución.
+     */
+    public static String resuelveLote(Configuracion configuracion, ReadableByteChannel canal,
+                                      PrintStream salida) throws IOException {
+        Algoritmo algoritmo = configuracion.obtenerAlgoritmo();
+        FormatoSalida formato = configuracion.obtenerFormato();
+        int hilos = configuracion.obtenerHilos();
+        Path directorio = configuracion.obtenerDirectorio() == null ? null
+                          : Files.createDirectories(Paths.get(configuracion.obtenerDirectorio()));
+        String entrada = configuracion.obtenerEntrada();
+        Iterator<Path> archivos = entrada.equals("-") ? null : listaLaberintos(Paths.get(entrada)).iterator();
+        ArrayDeque<Future<ResultadoLote>> pendientes = new ArrayDeque<>();
+        ArrayDeque<String> nombres = new ArrayDeque<>();
+        long[] latencias = new long[16];
+        int resueltos = 0;
+        int invalidos = 0;
+        long cuartos = 0;
+        ExecutorService conjunto = Executors.newFixedThreadPool(hilos);
+        long inicio = System.nanoTime();
+        try {
+            boolean terminado = false;
+            for(int leidos = 0; ; ) {
+                // Se mantiene un número acotado de laberintos en proceso.
+                while(!terminado && pendientes.size() < hilos * PENDIENTES_POR_HILO) {
+                    String nombre;
+                    Callable<Cuadricula> lectura;
+                    if(archivos != null) {
+                        terminado = !archivos.hasNext();
+                        if(terminado)
+                            break;
+                        Path archivo = archivos.next();
+                        String nombreArchivo = archivo.getFileName().toString();
+                        nombre = nombreArchivo.substring(0, nombreArchivo.length() - ".mze".length());
+                        lectura = () -> LectorEscritor.leer(archivo);
+                    } else {
+                        // El canal se lee en este hilo porque los laberintos vienen en orden.
+                        Cuadricula cuadricula;
+                        try {
+                            cuadricula = LectorEscritor.leerSiguiente(canal);
+                        } catch(IllegalArgumentException iae) {
+                            // Tras un laberinto inválido no se sabe dónde empieza el siguiente.
+                            System.err.println("laberinto-" + leidos + ": " + iae.getMessage());
+                            invalidos++;
+                            terminado = true;
+                            break;
+                        }
+                        terminado = cuadricula == null;
+                        if(terminado)
+                            break;
+                        nombre = "laberinto-" + leidos;
+                        lectura = () -> cuadricula;
+                    }
+                    leidos++;
+                    Path archivoSalida = directorio == null ? null : directorio.resolve(nombre + "." + formato.obtenerExtension());
+                    nombres.add(nombre);
+                    pendientes.add(conjunto.submit(() -> resuelveEnLote(lectura, algoritmo, formato, archivoSalida)));
+                }
+                if(pendientes.isEmpty())
+                    break;
+                String nombre = nombres.remove();
+                ResultadoLote resultado;
+                try {
+                    resultado = pendientes.remove().get();
+                } catch(ExecutionException e) {
+                    Throwable causa = e.getCause();
+                    if(causa instanceof IOException)
+                        throw (IOException) causa;
+                    if(!(causa instanceof IllegalStateException || causa instanceof IllegalArgumentException))
+                        throw new IllegalStateException("No se pudo resolver el lote de laberintos.", causa);
+                    System.err.println(nombre + ": " + causa.getMessage());
+                    invalidos++;
+                    continue;
+                }
+                if(resultado.solucion != null)
+                    salida.write(resultado.solucion, 0, resultado.solucion.length);
+                if(resueltos == latencias.length)
+                    latencias = Arrays.copyOf(latencias, 2 * resueltos);
+                latencias[resueltos++] = resultado.latencia;
+                cuartos += resultado.cuartos;
+            }
+        } catch(InterruptedException e) {
+            throw new IllegalStateException("Se interrumpió la resolución del lote.", e);
+        } finally {
+            conjunto.shutdownNow();
+        }
+        long total = System.nanoTime() - inicio;
+        return resumenLote(Arrays.copyOf(latencias, resueltos), total, cuartos)
+            + String.format("inválidos %d%n", invalidos);
+    }
+
+    /*
+     * Regresa los archivos ".mze" de un directorio ordenados por nombre.
+     */
+    private static List<Path> listaLaberintos(Path directorio) throws IOException {
+        try (Stream<Path> archivos = Files.list(directorio)) {
+            return archivos.filter(Files::isRegularFile)
+                           .filter(archivo -> archivo.getFileName().toString().endsWith(".mze"))
+                           .sorted()
+                           .collect(Collectors.toList());
+        }
+    }
+
+    /*
+     * Lee, valida, resuelve y codifica un laberinto del lote. Si hay archivo
+     * de salida la solución se escribe en él y no se regresa.
+     */
+    private static ResultadoLote resuelveEnLote(Callable<Cuadricula> lectura, Algoritmo algoritmo,
+                                                FormatoSalida formato, Path archivoSalida) throws Exception {
+        long comienzo = System.nanoTime();
+        Cuadricula cuadricula = lectura.call();
+        Laberinto laberinto = new Laberinto(cuadricula, algoritmo == null ? null : algoritmo.creaSolucionador());
+        byte[] solucion = null;
+        if(archivoSalida != null) {
+            try (OutputStream archivo = Files.newOutputStream(archivoSalida)) {
+                escribeSolucion(laberinto, formato, archivo);
+            }
+        } else {
+            solucion = codificaSolucion(laberinto, formato);
+        }
+        return new ResultadoLote(solucion, System.nanoTime() - comienzo, cuadricula.obtenerTotal());
+    }
+
+    /*
+     * El resultado de resolver un laberinto del lote.
+     */
+    private static class ResultadoLote {
+        // La solución codificada, o null si ya se escribió en su archivo.
+        private final byte[] solucion;
+        private final long latencia;
+        private final int cuartos;
+
+        private ResultadoLote(byte[] solucion, long latencia, int cuartos) {
+            this.solucion = solucion;
+            this.latencia = latencia;
+            this.cuartos = cuartos;
+        }
+    }
+
+    /*
+     * Escribe una cuadrícula en un archivo nuevo o lo reemplaza si existe.
+     */
+    private static void escribeArchivo(Path archivo, Cuadricula cuadricula) throws IOException {
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                                  StandardOpenOption.TRUNCATE_EXISTING)) {
+            LectorEscritor.escribir(canal, cuadricula);
+        }
+    }
+
+    /*
+     * Regresa el resumen de un lote: la latencia promedio, la mediana, el
+     * percentil 99 y la máxima de cada laberinto, y los laberintos y cuartos
+     * por segundo de todo el lote, dado el total de cuartos del lote.
+     */
+    private static String resumenLote(long[] latencias, long total, long cuartos) {
+        long[] ordenadas = latencias.clone();
+        Arrays.sort(ordenadas);
+        int n = ordenadas.length;
+        double promedio = Arrays.stream(ordenadas).average().orElse(0);
+        StringBuilder resumen = new StringBuilder();
+        resumen.append(String.format("laberintos %d, tiempo total %.1f ms%n", n, total / 1e6));
+        if(n == 0)
+            return resumen.toString();
+        resumen.append(String.format("latencia (ms): promedio %.3f, mediana %.3f, p99 %.3f, máxima %.3f%n",
+                                     promedio / 1e6, ordenadas[(n - 1) / 2] / 1e6,
+                                     ordenadas[(int) Math.ceil(0.99 * n) - 1] / 1e6, ordenadas[n - 1] / 1e6));
+        resumen.append(String.format("rendimiento: %.1f laberintos/s, %.0f cuartos/s%n",
+                                     n / (total / 1e9), cuartos / (total / 1e9)));
+        return resumen.toString();
+    }
+
+    /**
+     * Escribe la solución de un laberinto en el formato dado en un solo
+     * hilo, como {@link #escribeSolucion(Laberinto, FormatoSalida, int, OutputStream)}.
+     * @param laberinto El laberinto.
+     * @param formato El formato de la solución.
+     * @param salida Donde se escribe la solución.
+     * @throws IOException Si ocurrió un error al escribir.
+     */
+    public static void escribeSolucion(Laberinto laberinto, FormatoSalida formato,
+                                       OutputStream salida) throws IOException {
+        escribeSolucion(laberinto, formato, 1, salida);
     }
 
     /**
-     * Crea el código svg del laberinto con su solución.
-     * @param laberinto Por dibujar.
-     * @return Dibujo del laberinto en svg.
+     * Escribe la solución de un laberinto en el formato dado: el svg del
+     * laberinto con su solución, con líneas o con trazos, que se escribe
+     * conforme se dibuja, la imagen de pixeles, que se dibuja por franjas,
+     * o solo la trayectoria con su peso, sin dibujar el laberinto. Vacía la
+     * salida pero no la cierra.
+     * @param laberinto El laberinto.
+     * @param formato El formato de la solución.
+     * @param hilos El número de hilos con los que se dibuja una imagen.
+     * @param salida Donde se escribe la solución.
+     * @throws IOException Si ocurrió un error al escribir.
+     * @throws IllegalArgumentException Si el formato es {@link FormatoSalida#MOSAICO}.
+     */
+    public static void escribeSolucion(Laberinto laberinto, FormatoSalida formato, int hilos,
+                                       OutputStream salida) throws IOException {
+        switch (formato) {
+            case RUTA:
+                salida.write(laberinto.obtenerTrayectoria().codifica(laberinto.obtenerPesoSolucion()).array());
+                break;
+            case TEXTO:
+                salida.write(laberinto.obtenerTrayectoria().codificaTexto(laberinto.obtenerPesoSolucion()));
+                break;
+            case PBM:
+            case PGM:
+            case PNG:
+                new GraficadorImagen(laberinto).dibuja(salida, formato, hilos);
+                break;
+            case MOSAICO:
+                throw new IllegalArgumentException("Los mosaicos se escriben en un directorio, no en una salida.");
+            default:
+                Writer escritor = escritorSVG(salida);
+                new GraficadorLaberinto(laberinto, formato == FormatoSalida.TRAZO).dibuja(escritor);
+                escritor.write(System.lineSeparator());
+                escritor.flush();
+                break;
+        }
+        salida.flush();
+    }
+
+    /**
+     * Codifica la solución de un laberinto en memoria, como la escribe
+     * {@link #escribeSolucion}.
+     * @param laberinto El laberinto.
+     * @param formato El formato de la solución.
+     * @return Los bytes de la solución codificada.
+     * @throws IOException Si ocurrió un error al escribir.
+     */
+    public static byte[] codificaSolucion(Laberinto laberinto, FormatoSalida formato) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        escribeSolucion(laberinto, formato, bytes);
+        return bytes.toByteArray();
+    }
+
+    /*
+     * Regresa un escritor con buffer para escribir svg en una salida.
+     */
+    private static Writer escritorSVG(OutputStream salida) {
+        return new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8), BUFFER_SVG);
+    }
+
+    /**
+     * Mapea en memoria un archivo de laberinto, lo valida, lo resuelve y
+     * codifica solo la trayectoria de su solución, sin dibujarla.
+     * @param archivo La ruta del archivo del laberinto.
+     * @param formato El formato de la trayectoria, {@link FormatoSalida#RUTA}
+     *        o {@link FormatoSalida#TEXTO}.
+     * @return Los bytes de la trayectoria codificada con su peso.
+     * @throws IOException Si ocurrió un error al leer el archivo.
+     * @throws IllegalStateException Si el laberinto no es válido o no tiene solución.
+     */
+    public static byte[] codificaMapeado(String archivo, FormatoSalida formato) throws IOException {
+        LaberintoMapeado laberinto = new LaberintoMapeado(Paths.get(archivo));
+        laberinto.valida();
+        Trayectoria solucion = laberinto.resuelve();
+        if(solucion == null)
+            throw new IllegalStateException("El laberinto no tiene solución.");
+        // El peso de cada paso es la suma de los puntajes de sus cuartos más uno.
+        int x = solucion.obtenerInicioX();
+        int y = solucion.obtenerInicioY();
+        long peso = 0;
+        for(long i = 0; i < solucion.obtenerLongitud(); i++) {
+            Direccion direccion = solucion.obtenerPaso(i);
+            peso += Cuarto.obtenerPuntaje(laberinto.obtenerDato(x, y)) + 1;
+            x += direccion.deltaX;
+            y += direccion.deltaY;
+            peso += Cuarto.obtenerPuntaje(laberinto.obtenerDato(x, y));
+        }
+        return formato == FormatoSalida.TEXTO ? solucion.codificaTexto(peso) : solucion.codifica(peso).array();
+    }
+
+    /**
+     * Mapea en memoria un archivo de laberinto, lo valida, lo resuelve y
+     * escribe el código svg de una región con su solución conforme la dibuja.
+     * Vacía la salida pero no la cierra.
+     * @param archivo La ruta del archivo del laberinto.
+     * @param region La región por dibujar como x, y, ancho y alto, o
+     *        <code>null</code> para dibujar todo el laberinto.
+     * @param compacto Si las paredes y la solución se dibujan como trazos.
+     * @param salida Donde se escribe el dibujo.
+     * @throws IOException Si ocurrió un error al leer el archivo o al escribir.
+     * @throws IllegalStateException Si el laberinto no es válido o no tiene solución.
+     */
+    public static void escribeRegion(String archivo, int[] region, boolean compacto,
+                                     OutputStream salida) throws IOException {
+        LaberintoMapeado laberinto = new LaberintoMapeado(Paths.get(archivo));
+        laberinto.valida();
+        Trayectoria solucion = laberinto.resuelve();
+        if(solucion == null)
+            throw new IllegalStateException("El laberinto no tiene solución.");
+        if(region == null)
+            region = new int[] {0, 0, laberinto.obtenerAncho(), laberinto.obtenerAlto()};
+        GraficadorRegion dibujo = new GraficadorRegion(laberinto, solucion, region[0], region[1],
+                                                       region[2], region[3], compacto);
+        Writer escritor = escritorSVG(salida);
+        dibujo.dibuja(escritor);
+        escritor.write(System.lineSeparator());
+        escritor.flush();
+    }
+
+    /**
+     * Mapea en memoria un archivo de laberinto, lo valida, lo resuelve y
+     * escribe la imagen de todo el laberinto con su solución, dibujándola
+     * por franjas. Vacía la salida pero no la cierra.
+     * @param archivo La ruta del archivo del laberinto.
+     * @param formato El formato de la imagen.
+     * @param hilos El número de hilos con los que se dibuja la imagen.
+     * @param salida Donde se escribe la imagen.
+     * @throws IOException Si ocurrió un error al leer el archivo o al escribir.
+     * @throws IllegalStateException Si el laberinto no es válido o no tiene solución.
+     */
+    public static void escribeImagenMapeada(String archivo, FormatoSalida formato, int hilos,
+                                            OutputStream salida) throws IOException {
+        LaberintoMapeado laberinto = new LaberintoMapeado(Paths.get(archivo));
+        laberinto.valida();
+        Trayectoria solucion = laberinto.resuelve();
+        if(solucion == null)
+            throw new IllegalStateException("El laberinto no tiene solución.");
+        new GraficadorImagen(laberinto, solucion).dibuja(salida, formato, hilos);
+    }
+
+    /**
+     * Exporta un laberinto con su solución como una pirámide de mosaicos png
+     * en un directorio. Si el directorio ya tiene los mosaicos del mismo
+     * laberinto solo se dibujan los que cambian con la solución.
+     * @param laberinto El laberinto.
+     * @param directorio El directorio de los mosaicos.
+     * @param hilos El número de hilos con los que se dibujan los mosaicos.
+     * @return Un resumen con los mosaicos dibujados, los niveles y el tiempo.
+     * @throws IOException Si ocurrió un error al leer o escribir el directorio.
+     */
+    public static String exportaMosaicos(Laberinto laberinto, String directorio, int hilos) throws IOException {
+        return new GraficadorMosaicos(laberinto).exporta(Paths.get(directorio), hilos);
+    }
+
+    /**
+     * Mapea en memoria un archivo de laberinto, lo valida, lo resuelve y lo
+     * exporta con su solución como una pirámide de mosaicos png, como {@link
+     * #exportaMosaicos}.
+     * @param archivo La ruta del archivo del laberinto.
+     * @param directorio El directorio de los mosaicos.
+     * @param hilos El número de hilos con los que se dibujan los mosaicos.
+     * @return Un resumen con los mosaicos dibujados, los niveles y el tiempo.
+     * @throws IOException Si ocurrió un error al leer el archivo o al escribir el directorio.
+     * @throws IllegalStateException Si el laberinto no es válido o no tiene solución.
+     */
+    public static String exportaMosaicosMapeado(String archivo, String directorio, int hilos) throws IOException {
+        LaberintoMapeado laberinto = new LaberintoMapeado(Paths.get(archivo));
+        laberinto.valida();
+        Trayectoria solucion = laberinto.resuelve();
+        if(solucion == null)
+            throw new IllegalStateException("El laberinto no tiene solución.");
+        return new GraficadorMosaicos(laberinto, solucion).exporta(Paths.get(directorio), hilos);
+    }
+
+    /**
+     * Valida un laberinto y lo resuelve con cada uno de los algoritmos,
+     * midiendo cuánto tarda cada uno. Cada algoritmo se ejecuta varias veces
+     * y se reporta el mejor tiempo. El recorrido para laberintos sin ciclos
+     * solo se incluye si el laberinto es perfecto.
+     * @param cuadricula La cuadrícula de cuartos del laberinto.
+     * @return Una tabla con el algoritmo, el número de cuartos y el peso de la
+     *         solución, el número de cuartos expandidos y el tiempo en milisegundos.
+     * @throws IllegalStateException Si el laberinto no es válido.
+     */
+    public static String compara(Cuadricula cuadricula) throws IllegalStateException {
+        Laberinto laberinto = new Laberinto(cuadricula);
+        int origen = laberinto.obtenerOrigen();
+        int destino = laberinto.obtenerDestino();
+        StringBuilder tabla = new StringBuilder();
+        tabla.append(String.format("%-14s %12s %14s %12s %12s%n", "algoritmo", "cuartos", "peso",
+                                   "expandidos", "tiempo (ms)"));
+        for(Algoritmo algoritmo : Algoritmo.values()) {
+            if(algoritmo == Algoritmo.ARBOL && !laberinto.esPerfecto())
+                continue;
+            Solucionador solucionador = algoritmo.creaSolucionador();
+            int[] solucion = null;
+            long mejor = Long.MAX_VALUE;
+            for(int i = 0; i < REPETICIONES; i++) {
+                long inicio = System.nanoTime();
+                solucion = solucionador.resuelve(cuadricula, origen, destino);
+                mejor = Math.min(mejor, System.nanoTime() - inicio);
+            }
+            long peso = 0;
+            for(int i = 1; i < solucion.length; i++)
+                peso += cuadricula.obtenerPeso(solucion[i - 1], solucion[i]);
+            tabla.append(String.format("%-14s %12d %14d %12d %12.1f%n", algoritmo.obtenerNombre(),
+                                       solucion.length, peso, solucionador.obtenerExpandidos(),
+                                       mejor / 1e6));
+        }
+        return tabla.toString();
+    }
+
+    /**
+     * Genera un laberinto con cada uno de los generadores, en un solo hilo y
+     * con las dimensiones, la semilla y la fuente de números aleatorios de la
+     * configuración, midiendo cuánto
+     * tarda cada uno y cuánta memoria asigna. Cada generador se ejecuta
+     * varias veces y se reporta la mejor ejecución.
+     * @param configuracion De donde se obtienen la semilla y las dimensiones.
+     * @return Una tabla con el generador, el tiempo en milisegundos, los
+     *         cuartos por segundo y los megabytes asignados.
+     */
+    public static String comparaGeneradores(Configuracion configuracion) {
+        long semilla = configuracion.obtenerSemilla();
+        int ancho = configuracion.obtenerAncho();
+        int alto = configuracion.obtenerAlto();
+        TipoAleatorio aleatorio = configuracion.obtenerAleatorio();
+        StringBuilder tabla = new StringBuilder();
+        tabla.append(String.format("%-14s %12s %16s %14s%n", "generador", "tiempo (ms)",
+                                   "cuartos/s", "asignado (MB)"));
+        for(TipoGenerador tipo : TipoGenerador.values()) {
+            long mejor = Long.MAX_VALUE;
+            long asignado = Long.MAX_VALUE;
+            for(int i = 0; i < REPETICIONES; i++) {
+                long memoria = memoriaAsignada();
+                long inicio = System.nanoTime();
+                new Laberinto(semilla, ancho, alto, tipo.creaGenerador(), aleatorio, 1);
+                mejor = Math.min(mejor, System.nanoTime() - inicio);
+                asignado = Math.min(asignado, memoriaAsignada() - memoria);
+            }
+            tabla.append(String.format("%-14s %12.1f %16.0f %14.1f%n", tipo.obtenerNombre(), mejor / 1e6,
+                                       (double) ancho * alto / (mejor / 1e9), asignado / 1e6));
+        }
+        return tabla.toString();
+    }
+
+    /*
+     * Regresa los bytes que ha asignado el hilo actual, o 0 si la máquina
+     * virtual no lo permite medir.
      */
-    public static String dibujaSolucion(Laberinto laberinto) {
-        GraficadorLaberinto dibujo = new GraficadorLaberinto(laberinto);
-        return FigurasSVG.estructuraSVG(dibujo.obtenerAncho(), dibujo.obtenerAlto(), dibujo.dibuja());
+    private static long memoriaAsignada() {
+        java.lang.management.ThreadMXBean hilos = ManagementFactory.getThreadMXBean();
+        if(!(hilos instanceof com.sun.management.ThreadMXBean))
+            return 0;
+        com.sun.management.ThreadMXBean medidor = (com.sun.management.ThreadMXBean) hilos;
+        return medidor.getThreadAllocatedBytes(Thread.currentThread().getId());
     }
 }
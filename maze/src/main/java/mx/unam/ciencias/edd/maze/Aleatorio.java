@@ -0,0 +1,33 @@
+package mx.unam.ciencias.edd.maze;
+
+/**
+ * <p>Interfaz para los generadores de números pseudoaleatorios con los que se
+ * generan los laberintos.</p>
+ * <p>Tiene los mismos métodos que {@link java.util.Random} que usan los
+ * generadores, así que se puede cambiar la fuente de números sin cambiar los
+ * algoritmos. Las implementaciones no son seguras para usarse desde varios
+ * hilos; cada hilo debe tener la suya.</p>
+ */
+public interface Aleatorio {
+
+    /**
+     * Regresa un entero pseudoaleatorio uniforme entre 0 (incluido) y la cota
+     * (excluida).
+     * @param cota La cota superior, que debe ser positiva.
+     * @return Un entero entre 0 y la cota.
+     * @throws IllegalArgumentException Si la cota no es positiva.
+     */
+    public int nextInt(int cota);
+
+    /**
+     * Regresa un booleano pseudoaleatorio.
+     * @return Un booleano pseudoaleatorio.
+     */
+    public boolean nextBoolean();
+
+    /**
+     * Regresa un entero largo pseudoaleatorio.
+     * @return Un entero largo pseudoaleatorio.
+     */
+    public long nextLong();
+}
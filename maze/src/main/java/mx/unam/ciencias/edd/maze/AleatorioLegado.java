@@ -0,0 +1,47 @@
+package mx.unam.ciencias.edd.maze;
+
+import java.util.Random;
+
+/**
+ * <p>Clase que obtiene los números de {@link java.util.Random}.</p>
+ * <p>Es la fuente original del proyecto; para una semilla produce exactamente
+ * los mismos laberintos que las versiones anteriores. Cada número actualiza
+ * la semilla con una operación atómica y el estado es de 48 bits.</p>
+ */
+public class AleatorioLegado implements Aleatorio {
+    private final Random generador;
+
+    /**
+     * Crea un generador con la semilla dada.
+     * @param semilla La semilla.
+     */
+    public AleatorioLegado(long semilla) {
+        generador = new Random(semilla);
+    }
+
+    /**
+     * Regresa un entero pseudoaleatorio entre 0 y la cota.
+     * @param cota La cota superior, que debe ser positiva.
+     * @return Un entero entre 0 y la cota.
+     * @throws IllegalArgumentException Si la cota no es positiva.
+     */
+    @Override public int nextInt(int cota) {
+        return generador.nextInt(cota);
+    }
+
+    /**
+     * Regresa un booleano pseudoaleatorio.
+     * @return Un booleano pseudoaleatorio.
+     */
+    @Override public boolean nextBoolean() {
+        return generador.nextBoolean();
+    }
+
+    /**
+     * Regresa un entero largo pseudoaleatorio.
+     * @return Un entero largo pseudoaleatorio.
+     */
+    @Override public long nextLong() {
+        return generador.nextLong();
+    }
+}
@@ -0,0 +1,89 @@
+package mx.unam.ciencias.edd.maze;
+
+/**
+ * <p>Clase que obtiene los números con el algoritmo xoroshiro128++.</p>
+ * <p>El estado son dos enteros largos sin operaciones atómicas, que se
+ * inicializan a partir de la semilla con SplitMix64. Cada número cuesta unas
+ * cuantas operaciones de bits, y los enteros acotados se obtienen con una
+ * multiplicación en lugar de una división, rechazando solo cuando hace falta
+ * para que sean uniformes.</p>
+ */
+public class AleatorioRapido implements Aleatorio {
+    private long s0;
+    private long s1;
+    // Bits aún no usados para booleanos y cuántos quedan.
+    private long bits;
+    private int restantes;
+
+    /**
+     * Crea un generador con la semilla dada.
+     * @param semilla La semilla.
+     */
+    public AleatorioRapido(long semilla) {
+        s0 = mezcla(semilla += 0x9E3779B97F4A7C15L);
+        s1 = mezcla(semilla + 0x9E3779B97F4A7C15L);
+        // El estado no debe ser todo cero.
+        if((s0 | s1) == 0)
+            s1 = 1;
+    }
+
+    /*
+     * Función de mezcla de SplitMix64.
+     */
+    private static long mezcla(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Regresa un entero largo pseudoaleatorio.
+     * @return Un entero largo pseudoaleatorio.
+     */
+    @Override public long nextLong() {
+        long a = s0;
+        long b = s1;
+        long resultado = Long.rotateLeft(a + b, 17) + a;
+        b ^= a;
+        s0 = Long.rotateLeft(a, 49) ^ b ^ (b << 21);
+        s1 = Long.rotateLeft(b, 28);
+        return resultado;
+    }
+
+    /**
+     * Regresa un entero pseudoaleatorio entre 0 y la cota.
+     * @param cota La cota superior, que debe ser positiva.
+     * @return Un entero entre 0 y la cota.
+     * @throws IllegalArgumentException Si la cota no es positiva.
+     */
+    @Override public int nextInt(int cota) {
+        if(cota <= 0)
+            throw new IllegalArgumentException("La cota debe ser positiva.");
+        long m = (nextLong() >>> 32) * cota;
+        long inferior = m & 0xFFFFFFFFL;
+        if(inferior < cota) {
+            long umbral = (1L << 32) % cota;
+            while(inferior < umbral) {
+                m = (nextLong() >>> 32) * cota;
+                inferior = m & 0xFFFFFFFFL;
+            }
+        }
+        return (int) (m >>> 32);
+    }
+
+    /**
+     * Regresa un booleano pseudoaleatorio. Cada número de 64 bits alcanza
+     * para 64 booleanos.
+     * @return Un booleano pseudoaleatorio.
+     */
+    @Override public boolean nextBoolean() {
+        if(restantes == 0) {
+            bits = nextLong();
+            restantes = 64;
+        }
+        restantes--;
+        boolean resultado = (bits & 1) != 0;
+        bits >>>= 1;
+        return resultado;
+    }
+}
@@ -0,0 +1,73 @@
+package mx.unam.ciencias.edd.maze;
+
+/**
+ * Enumeración para los algoritmos con los que se puede resolver un laberinto.
+ */
+public enum Algoritmo {
+    /**
+     * Dijkstra sobre la cuadrícula con un montículo indexado.
+     */
+    DIJKSTRA,
+    /**
+     * Dijkstra sobre la cuadrícula con una cola de cubetas (algoritmo de Dial).
+     */
+    CUBETAS,
+    /**
+     * A* sobre la cuadrícula con la distancia Manhattan al destino.
+     */
+    AESTRELLA,
+    /**
+     * Dijkstra bidireccional sobre la cuadrícula, desde el origen y el destino.
+     */
+    BIDIRECCIONAL,
+    /**
+     * Recorrido en profundidad en tiempo lineal, solo para laberintos sin ciclos.
+     */
+    ARBOL,
+    /**
+     * Dijkstra sobre una {@link mx.unam.ciencias.edd.Grafica} de los cuartos.
+     */
+    GRAFICA;
+
+    /**
+     * Obtiene el algoritmo con el nombre dado, sin importar mayúsculas.
+     * @param nombre El nombre del algoritmo.
+     * @return El algoritmo con el nombre dado.
+     * @throws IllegalArgumentException Si no hay un algoritmo con ese nombre.
+     */
+    public static Algoritmo obtenerAlgoritmo(String nombre) {
+        for(Algoritmo algoritmo : values())
+            if(algoritmo.obtenerNombre().equals(nombre.toLowerCase()))
+                return algoritmo;
+        throw new IllegalArgumentException("Algoritmo desconocido: " + nombre);
+    }
+
+    /**
+     * Obtiene el nombre del algoritmo como se usa en la línea de comandos.
+     * @return El nombre del algoritmo.
+     */
+    public String obtenerNombre() {
+        return name().toLowerCase();
+    }
+
+    /**
+     * Crea un solucionador que usa este algoritmo.
+     * @return Un solucionador nuevo.
+     */
+    public Solucionador creaSolucionador() {
+        switch (this) {
+            case CUBETAS:
+                return new SolucionadorCubetas();
+            case AESTRELLA:
+                return new SolucionadorAEstrella();
+            case BIDIRECCIONAL:
+                return new SolucionadorBidireccional();
+            case ARBOL:
+                return new SolucionadorArbol();
+            case GRAFICA:
+                return new SolucionadorGrafica();
+            default:
+                return new SolucionadorDijkstra();
+        }
+    }
+}
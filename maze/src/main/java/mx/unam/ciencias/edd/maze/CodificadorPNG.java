@@ -0,0 +1,147 @@
+package mx.unam.ciencias.edd.maze;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * <p>Clase con lo necesario para codificar imágenes png de cuatro bits por
+ * pixel con una paleta de los colores de los dibujos del laberinto.</p>
+ * <p>Los pixeles se dan como un byte por pixel con el índice de su color en
+ * la paleta, fila por fila.</p>
+ */
+class CodificadorPNG {
+    /** Índice del blanco del fondo. */
+    static final byte BLANCO = 0;
+    /** Índice del negro de las paredes. */
+    static final byte PARED = 1;
+    /** Índice del verde de la solución. */
+    static final byte SOLUCION = 2;
+    /** Índice del azul del cuarto de origen. */
+    static final byte ORIGEN = 3;
+    /** Índice del rojo del cuarto de destino. */
+    static final byte DESTINO = 4;
+    // La paleta en el orden de los índices: blanco, negro, verde, azul y rojo.
+    private static final byte[] PALETA = {
+        (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0, 0, 0, 0, (byte) 0x80, 0,
+        0, 0, (byte) 0xFF, (byte) 0xFF, 0, 0
+    };
+    // La firma de un archivo png.
+    private static final byte[] FIRMA = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+
+    /* No es deseable hacer objecto de esta clase. */
+    private CodificadorPNG() {}
+
+    /**
+     * Escribe una imagen png completa que cabe en memoria.
+     * @param salida Donde se escribe la imagen.
+     * @param pixeles Los índices de los colores de los pixeles.
+     * @param ancho El ancho de la imagen.
+     * @param alto El alto de la imagen.
+     * @throws IOException Si ocurrió un error al escribir.
+     */
+    static void escribe(OutputStream salida, byte[] pixeles, int ancho, int alto) throws IOException {
+        DataOutputStream datos = new DataOutputStream(salida);
+        escribeInicio(datos, ancho, alto);
+        ByteArrayOutputStream comprimidos = new ByteArrayOutputStream();
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try (DeflaterOutputStream zlib = new DeflaterOutputStream(comprimidos, deflater)) {
+            zlib.write(empaca(pixeles, ancho, alto));
+        } finally {
+            deflater.end();
+        }
+        escribeBloque(datos, "IDAT", comprimidos.toByteArray());
+        escribeFin(datos);
+        datos.flush();
+    }
+
+    /**
+     * Escribe lo que va antes de los pixeles: la firma, el encabezado con
+     * cuatro bits por pixel con índices a la paleta, y la paleta.
+     * @param datos Donde se escribe.
+     * @param ancho El ancho de la imagen.
+     * @param alto El alto de la imagen.
+     * @throws IOException Si ocurrió un error al escribir.
+     */
+    static void escribeInicio(DataOutputStream datos, int ancho, int alto) throws IOException {
+        datos.write(FIRMA);
+        byte[] encabezado = new byte[13];
+        escribeEntero(encabezado, 0, ancho);
+        escribeEntero(encabezado, 4, alto);
+        encabezado[8] = 4;
+        encabezado[9] = 3;
+        escribeBloque(datos, "IHDR", encabezado);
+        escribeBloque(datos, "PLTE", PALETA);
+    }
+
+    /**
+     * Escribe el bloque que termina la imagen.
+     * @param datos Donde se escribe.
+     * @throws IOException Si ocurrió un error al escribir.
+     */
+    static void escribeFin(DataOutputStream datos) throws IOException {
+        escribeBloque(datos, "IEND", new byte[0]);
+    }
+
+    /**
+     * Empaca filas de pixeles a cuatro bits por pixel, cada una precedida
+     * por el byte del filtro de png. La primera fila no se filtra; las demás
+     * usan el filtro "arriba", que resta la fila anterior, así que lo que se
+     * repite entre filas queda en cero y se comprime mejor.
+     * @param pixeles Los índices de los colores de los pixeles.
+     * @param ancho El ancho de las filas.
+     * @param filas El número de filas.
+     * @return Las filas empacadas y filtradas, listas para comprimirse.
+     */
+    static byte[] empaca(byte[] pixeles, int ancho, int filas) {
+        int bytesFila = 1 + (ancho + 1) / 2;
+        byte[] empacados = new byte[filas * bytesFila];
+        for(int f = 0; f < filas; f++) {
+            int fila = f * bytesFila + 1;
+            for(int c = 0; c < ancho; c++)
+                empacados[fila + (c >>> 1)] |= pixeles[f * ancho + c] << ((c & 1) == 0 ? 4 : 0);
+        }
+        // De abajo hacia arriba, para restar filas que todavía no se filtran.
+        for(int f = filas - 1; f > 0; f--) {
+            int fila = f * bytesFila;
+            empacados[fila] = 2;
+            for(int i = 1; i < bytesFila; i++)
+                empacados[fila + i] -= empacados[fila - bytesFila + i];
+        }
+        return empacados;
+    }
+
+    /**
+     * Escribe un bloque de png: la longitud, el tipo, los datos y el CRC del
+     * tipo y los datos.
+     * @param datos Donde se escribe.
+     * @param tipo El tipo del bloque, de cuatro letras.
+     * @param contenido Los datos del bloque.
+     * @throws IOException Si ocurrió un error al escribir.
+     */
+    static void escribeBloque(DataOutputStream datos, String tipo, byte[] contenido) throws IOException {
+        byte[] bytesTipo = tipo.getBytes(StandardCharsets.US_ASCII);
+        CRC32 crc = new CRC32();
+        crc.update(bytesTipo);
+        crc.update(contenido);
+        datos.writeInt(contenido.length);
+        datos.write(bytesTipo);
+        datos.write(contenido);
+        datos.writeInt((int) crc.getValue());
+    }
+
+    /*
+     * Escribe un entero de 32 bits con el byte más significativo primero.
+     */
+    private static void escribeEntero(byte[] bytes, int posicion, int valor) {
+        bytes[posicion] = (byte) (valor >>> 24);
+        bytes[posicion + 1] = (byte) (valor >>> 16);
+        bytes[posicion + 2] = (byte) (valor >>> 8);
+        bytes[posicion + 3] = (byte) valor;
+    }
+}
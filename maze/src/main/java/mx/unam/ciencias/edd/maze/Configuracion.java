@@ -1,19 +1,32 @@
 package mx.unam.ciencias.edd.maze;
 
 import java.io.IOException;
-import mx.unam.ciencias.edd.Lista;
+import java.nio.channels.ReadableByteChannel;
 
 /**
  * <p>Clase para gestionar las acciones y datos del programa.</p>
  */
 public class Configuracion {
-    private final String FORMATO = "MAZE";
     private Accion accion;
-    private byte ancho;
-    private byte alto;
+    private int ancho;
+    private int alto;
     private long semilla;
-    private byte[][] datos;
-    private Lista<Byte> maze;
+    private int hilos;
+    // Número de laberintos del lote y directorio donde se escriben.
+    private int cantidad;
+    private String directorio;
+    // Directorio o "-" para la entrada estándar de los laberintos por resolver en lote.
+    private String entrada;
+    // Puerto del servidor.
+    private int puerto;
+    // Archivo del laberinto mapeado y región por dibujar.
+    private String archivo;
+    private int[] region;
+    private Algoritmo algoritmo;
+    private TipoGenerador tipo;
+    private TipoAleatorio aleatorio;
+    private FormatoSalida formato;
+    private Cuadricula cuadricula;
 
     /**
      * Inicializa la configuración con los argumentos proporcionados.
@@ -23,20 +36,22 @@ public class Configuracion {
     public Configuracion(String[] args) throws IOException {
         // Establece la semilla por defecto en la hora de la computadora.
         semilla = System.currentTimeMillis();
-        // Acción por defecto.
+        hilos = 1;
+        tipo = TipoGenerador.DFS;
+        aleatorio = TipoAleatorio.LEGADO;
+        formato = FormatoSalida.SVG;
+        // Acción por defecto; sin algoritmo se elige según el laberinto.
         accion = Accion.RESUELVE;
-        maze = new Lista<>();
-        // Si no se propocionaron argumentos lee de la entrada estándar.
-        if(args.length != 0)
-            validaArgumentos(args);
-        else {
-            maze = LectorEscritor.leer();
-            validaFormato(maze);
-            byte altura = maze.eliminaPrimero();
-            byte ancho = maze.eliminaPrimero();
-            establecerAltura((altura & 0xFF));
-            establecerAncho((ancho & 0xFF));
-            establecerDatos(maze);
+        validaArgumentos(args);
+        // Si no se va a generar ni a mapear un archivo lee de la entrada estándar.
+        if(accion == Accion.RESUELVE || accion == Accion.COMPARA) {
+            ReadableByteChannel entrada = LectorEscritor.entrada();
+            Encabezado encabezado = Encabezado.lee(entrada);
+            establecerAltura(encabezado.obtenerAlto());
+            establecerAncho(encabezado.obtenerAncho());
+            // Los cuartos se copian por bloques directamente a la cuadrícula.
+            cuadricula = LectorEscritor.leer(entrada, encabezado);
+            entrada.close();
         }
     }
 
@@ -46,11 +61,40 @@ public class Configuracion {
      * -s Indica que se debe propocionar una semilla.
      * -h Indica la altura del laberinto.
      * -w Indica el ancho del laberinto.
-     * Todos los parámetros deben ir acompañados de un número excepto -g.
+     * -p Indica el número de hilos con los que se genera o se dibuja una imagen
+     *    o los mosaicos.
+     * -n Indica el número de laberintos por generar, uno por semilla a partir de -s.
+     * -o Indica el directorio donde se escribe cada laberinto del lote o los
+     *    mosaicos.
+     * -l Indica el directorio de laberintos por resolver en lote, o "-"
+     *    para resolver los laberintos concatenados de la entrada estándar.
+     * -d Indica el puerto local donde se sirven las peticiones de solución.
+     * -f Indica el formato de la solución: svg, trazo (svg compacto), ruta
+     *    (binario), texto, una imagen pbm, pgm o png o mosaico (mosaicos png
+     *    en el directorio de -o).
+     * -t Indica el algoritmo con el que se genera.
+     * -r Indica la fuente de números aleatorios con la que se genera.
+     * -m Indica el archivo de un laberinto por resolver mapeándolo en memoria.
+     * -v Indica la región por dibujar del laberinto mapeado como x,y,ancho,alto.
+     * -a Indica el algoritmo con el que se resuelve el laberinto.
+     * -b Indica que se comparan los tiempos de todos los algoritmos que
+     *    resuelven o, junto con -g, de todos los que generan.
+     * Todos los parámetros deben ir acompañados de un número excepto -g y -b,
+     * que no llevan nada, -m, -o y -l, que van acompañados de un archivo, -a y -t, que
+     * van acompañados del nombre de un algoritmo, -r, que va acompañado
+     * del nombre de una fuente de números aleatorios, y -f, que va
+     * acompañado del nombre de un formato.
+     * Para generar se necesitan -g, -h y -w; para resolver un laberinto mapeado -m.
+     * Con -n se genera un lote; sin -o el lote se escribe concatenado en la salida.
+     * Con -l se resuelve un lote; sin -o las soluciones se escriben en la salida.
+     * Con -d se atienden peticiones hasta que se interrumpe el programa.
+     * Con -f mosaico se necesita -o, que solo se usa así al resolver un laberinto.
+     * Para resolver de la entrada estándar no se debe dar -h ni -w.
      * Si no se introdujo alguno de los mencionados manda una excpción.
      */
     private void validaArgumentos(String[] args) {
         boolean[] argumentosDisponibles = new boolean[3];
+        boolean compara = false;
         for(int i = 0; i < args.length; i++) {
             String actual = args[i].trim();
             String siguiente = obtenerCadena(args, ++i).trim();
@@ -71,13 +115,84 @@ public class Configuracion {
                     establecerAncho(Integer.parseInt(siguiente));
                     argumentosDisponibles[2] = true;
                     break;
+                case "-t":
+                    tipo = TipoGenerador.obtenerTipo(siguiente);
+                    break;
+                case "-r":
+                    aleatorio = TipoAleatorio.obtenerTipo(siguiente);
+                    break;
+                case "-p":
+                    establecerHilos(Integer.parseInt(siguiente));
+                    break;
+                case "-n":
+                    establecerCantidad(Integer.parseInt(siguiente));
+                    break;
+                case "-o":
+                    directorio = siguiente;
+                    break;
+                case "-l":
+                    accion = Accion.RESUELVE_LOTE;
+                    entrada = siguiente;
+                    break;
+                case "-d":
+                    accion = Accion.SIRVE;
+                    establecerPuerto(Integer.parseInt(siguiente));
+                    break;
+                case "-f":
+                    formato = FormatoSalida.obtenerFormato(siguiente);
+                    break;
+                case "-m":
+                    accion = Accion.RESUELVE_MAPEADO;
+                    archivo = siguiente;
+                    break;
+                case "-v":
+                    establecerRegion(siguiente);
+                    break;
+                case "-a":
+                    algoritmo = Algoritmo.obtenerAlgoritmo(siguiente);
+                    break;
+                case "-b":
+                    i--;
+                    compara = true;
+                    break;
                 default:
                     throw new IllegalArgumentException("Función inválida");
             }
         }
-        boolean pivote = true;
-        for(boolean argumento : argumentosDisponibles)
-            pivote &= argumento;
+        if(compara)
+            accion = accion == Accion.GENERA ? Accion.COMPARA_GENERADORES : Accion.COMPARA;
+        else if(cantidad > 0 && accion == Accion.GENERA)
+            accion = Accion.GENERA_LOTE;
+        boolean pivote;
+        switch(accion) {
+            case COMPARA_GENERADORES:
+            case GENERA:
+                pivote = argumentosDisponibles[1] && argumentosDisponibles[2] && directorio == null;
+                break;
+            case GENERA_LOTE:
+                pivote = argumentosDisponibles[1] && argumentosDisponibles[2];
+                break;
+            case SIRVE:
+                pivote = !argumentosDisponibles[0] && !argumentosDisponibles[1] && !argumentosDisponibles[2]
+                         && directorio == null;
+                break;
+            case RESUELVE_LOTE:
+                pivote = !argumentosDisponibles[0] && !argumentosDisponibles[1] && !argumentosDisponibles[2]
+                         && !entrada.isEmpty() && formato != FormatoSalida.MOSAICO;
+                break;
+            case RESUELVE_MAPEADO:
+                pivote = !argumentosDisponibles[0] && !archivo.isEmpty()
+                         && (formato != FormatoSalida.MOSAICO || directorio != null);
+                break;
+            case RESUELVE:
+                pivote = !argumentosDisponibles[0] && !argumentosDisponibles[1] && !argumentosDisponibles[2]
+                         && (directorio != null) == (formato == FormatoSalida.MOSAICO);
+                break;
+            default:
+                pivote = !argumentosDisponibles[0] && !argumentosDisponibles[1] && !argumentosDisponibles[2]
+                         && directorio == null;
+                break;
+        }
         if(!pivote) {
             uso();
             throw new IllegalStateException("La forma en la que se introdujeron los argumentos es inválida.");
@@ -94,63 +209,72 @@ public class Configuracion {
     }
 
     /*
-     * Verica que el archivo empiece con la frase "MAZE".
+     * Establece el valor de la semilla del generador.
      */
-    private void validaFormato(Lista<Byte> entrada) {
-        String formato = "";
-        for(int i = 0; i < 4; i++)
-            formato += (char) (entrada.eliminaPrimero() & 0xFF);
-        if(!formato.equals(FORMATO))
-            throw new IllegalArgumentException("Formato inválido");
+    private void establecerSemilla(long semilla) {
+        this.semilla = semilla;
     }
 
     /*
-     * Establece el valor de la semilla del generador.
+     * Establece el número de hilos con los que se genera.
+     * Si es menor a 1 manda una excepción.
      */
-    private void establecerSemilla(long semilla) {
-        this.semilla = semilla;
+    private void establecerHilos(int hilos) {
+        if(hilos < 1)
+            throw new IllegalArgumentException("El número de hilos debe de ser al menos 1.");
+        this.hilos = hilos;
     }
 
     /*
-     * Establece la altura en bytes dado un entero.
-     * Si la altura no esta en el rango del 2 al 255 manda una excepción.
+     * Establece el número de laberintos del lote.
+     * Si es menor a 1 manda una excepción.
      */
-    private void establecerAltura(int alto) {
-        if(alto < 2 || alto > 255)
-            throw new IllegalArgumentException("El alto debe de estar entre 2 y 255.");
-        this.alto = (byte) alto;
+    private void establecerCantidad(int cantidad) {
+        if(cantidad < 1)
+            throw new IllegalArgumentException("El número de laberintos debe de ser al menos 1.");
+        this.cantidad = cantidad;
     }
 
     /*
-     * Establece la anchura en bytes dado un entero.
-     * Si la anchura no esta en el rango del 2 al 255 manda una excepción.
+     * Establece el puerto del servidor.
+     * Si no es un puerto válido manda una excepción.
      */
-    private void establecerAncho(int ancho) {
-        if(ancho < 2 || ancho > 255)
-            throw new IllegalArgumentException("El ancho debe de estar entre 2 y 255.");  
-        this.ancho = (byte) ancho;
+    private void establecerPuerto(int puerto) {
+        if(puerto < 0 || puerto > 0xFFFF)
+            throw new IllegalArgumentException("El puerto debe de ser un número del 0 al 65535.");
+        this.puerto = puerto;
     }
 
     /*
-     * Establece el arreglo de dos dimensiones de los datos de los cuartos
-     * teniendo el cuenta el orden de estos en el laberinto.
-     * Si la cantidad de datos no es congruente con los datos del laberinto,
-     * manda una excepción.
-     */
-    private void establecerDatos(Lista<Byte> maze) {
-        if(maze.getElementos() != obtenerAncho() * obtenerAlto())
-            throw new IllegalArgumentException("Ancho o alto incoherentes.");
-        datos = new byte[obtenerAlto()][obtenerAncho()];
-        int x = 0; 
-        int y = 0;
-        for(byte dato : maze) {
-            if(x == obtenerAncho()) {
-                x = 0;
-                y++;
-            }
-            datos[y][x] = dato;
-            x++;
-        }
+     * Establece la región por dibujar dada una cadena de la forma x,y,ancho,alto.
+     */
+    private void establecerRegion(String region) {
+        String[] valores = region.split(",");
+        if(valores.length != 4)
+            throw new IllegalArgumentException("La región debe de ser x,y,ancho,alto.");
+        this.region = new int[4];
+        for(int i = 0; i < 4; i++)
+            this.region[i] = Integer.parseInt(valores[i].trim());
+    }
+
+    /*
+     * Establece la altura dado un entero.
+     * Si la altura es menor a 2 manda una excepción.
+     */
+    private void establecerAltura(int alto) {
+        if(alto < 2)
+            throw new IllegalArgumentException("El alto debe de ser al menos 2.");
+        this.alto = alto;
+    }
+
+    /*
+     * Establece la anchura dado un entero.
+     * Si la anchura es menor a 2 manda una excepción.
+     */
+    private void establecerAncho(int ancho) {
+        if(ancho < 2)
+            throw new IllegalArgumentException("El ancho debe de ser al menos 2.");
+        this.ancho = ancho;
     }
 
     /**
@@ -159,45 +283,75 @@ public class Configuracion {
     public static void uso() {
         System.err.println("Uso genera (-s es opcional) : java -jar target/maze.jar" +
 			   " -g -s <numero> -w <numero> -h <numero> > <recurso salida>");
-        System.err.println("Uso resuelve : java -jar target/maze.jar < <recurso entrada> > <recurso salida>");
-    }
-
-    /**
-     * Establecce el arreglo de dos dimensiones de los datos de los cuartos
-     * teniendo en cuenta un arreglo de dos dimensiones de cuartos.
-     * @param cuartos El arreglo de dos dimensiones de cuartos.
-     */
-    public void establecerDatos(Cuarto[][] cuartos) {
-        ancho = (byte) cuartos[0].length;
-        alto = (byte) cuartos.length;
-        // Borra los datos actuales.
-        maze.limpia();
-        // Establece al formato.
-        for(int i = 0; i < FORMATO.length(); i++)
-            maze.agrega((byte) FORMATO.charAt(i));
-        maze.agrega(alto);
-        maze.agrega(ancho);
-        // Agrega los datos de los cuartos.
-        for(int y = 0; y < obtenerAlto(); y++) {
-            for(int x = 0; x < obtenerAncho(); x++)
-                maze.agrega(cuartos[y][x].obtenerDato());
-        }
+        System.err.println("Uso genera en paralelo (-t es opcional) : java -jar target/maze.jar" +
+                           " -g -p <hilos> -t <dfs|kruskal|prim|wilson|sidewinder|binario|eller>" +
+                           " -s <numero> -w <numero> -h <numero> > <recurso salida>");
+        System.err.println("Uso genera rápido (-r es opcional, legado por omisión) : java -jar target/maze.jar" +
+                           " -g -r <legado|rapido> -w <numero> -h <numero> > <recurso salida>");
+        System.err.println("Uso genera lote (-o es opcional) : java -jar target/maze.jar" +
+                           " -g -n <numero> -p <hilos> -s <numero> -w <numero> -h <numero> -o <directorio>");
+        System.err.println("Uso resuelve (-a es opcional) : java -jar target/maze.jar" +
+                           " -a <dijkstra|cubetas|aestrella|bidireccional|arbol|grafica> < <recurso entrada> > <recurso salida>");
+        System.err.println("Uso resuelve solo la trayectoria : java -jar target/maze.jar" +
+                           " -f <svg|trazo|ruta|texto> < <recurso entrada> > <recurso salida>");
+        System.err.println("Uso resuelve como imagen (-p es opcional) : java -jar target/maze.jar" +
+                           " -f <pbm|pgm|png> -p <hilos> < <recurso entrada> > <recurso salida>");
+        System.err.println("Uso resuelve como mosaicos (-p es opcional) : java -jar target/maze.jar" +
+                           " -f mosaico -p <hilos> -o <directorio> < <recurso entrada>");
+        System.err.println("Uso resuelve lote (-o es opcional) : java -jar target/maze.jar" +
+                           " -l <directorio|-> -p <hilos> -o <directorio>");
+        System.err.println("Uso servidor (-a es opcional) : java -jar target/maze.jar" +
+                           " -d <puerto> -p <hilos> -a <algoritmo>");
+        System.err.println("Uso compara algoritmos : java -jar target/maze.jar -b < <recurso entrada>");
+        System.err.println("Uso compara generadores : java -jar target/maze.jar -g -b -w <numero> -h <numero>");
+        System.err.println("Uso resuelve mapeado (-v es opcional) : java -jar target/maze.jar" +
+                           " -m <archivo> -v <x,y,ancho,alto> > <recurso salida>");
+        System.err.println("Uso mosaicos de un laberinto mapeado (-p es opcional) : java -jar target/maze.jar" +
+                           " -m <archivo> -f mosaico -p <hilos> -o <directorio>");
+    }
+
+    /**
+     * Establecce los datos de los cuartos teniendo en cuenta una cuadrícula
+     * de cuartos.
+     * @param cuadricula La cuadrícula de cuartos.
+     */
+    public void establecerDatos(Cuadricula cuadricula) {
+        this.cuadricula = cuadricula;
+        ancho = cuadricula.obtenerAncho();
+        alto = cuadricula.obtenerAlto();
     }
     
     /**
-     * Regresa los datos de los cuartos del laberinto.
-     * @return Un arreglo de bytes de dos dimensiones con los datos del laberinto.
+     * Regresa la cuadrícula con los datos de los cuartos del laberinto.
+     * @return La cuadrícula con los datos del laberinto.
+     */
+    public Cuadricula obtenerCuadricula() {
+        return cuadricula;
+    }
+
+    /**
+     * Regresa el archivo del laberinto por mapear.
+     * @return El archivo del laberinto por mapear.
      */
-    public byte[][] obtenerDatos() {
-        return datos;
+    public String obtenerArchivo() {
+        return archivo;
     }
 
     /**
-     * Regresa los datos del laberinto con toda la información requerida por el programa.
-     * @return Una lista de los datos del laberinto.
+     * Regresa la región por dibujar como x, y, ancho y alto.
+     * @return La región por dibujar, o <code>null</code> si se dibuja todo el laberinto.
      */
-    public Lista<Byte> obenerFormatoDatos() {
-        return maze;
+    public int[] obtenerRegion() {
+        return region;
+    }
+
+    /**
+     * Regresa el algoritmo con el que se resuelve el laberinto.
+     * @return El algoritmo con el que se resuelve el laberinto, o
+     *         <code>null</code> si se elige según el laberinto.
+     */
+    public Algoritmo obtenerAlgoritmo() {
+        return algoritmo;
     }
 
     /**
@@ -208,6 +362,73 @@ public class Configuracion {
         return accion;
     }
 
+    /**
+     * Regresa el número de hilos con los que se genera.
+     * @return El número de hilos con los que se genera.
+     */
+    public int obtenerHilos() {
+        return hilos;
+    }
+
+    /**
+     * Regresa el número de laberintos del lote.
+     * @return El número de laberintos del lote, 0 si no se genera un lote.
+     */
+    public int obtenerCantidad() {
+        return cantidad;
+    }
+
+    /**
+     * Regresa el directorio donde se escriben los laberintos o las
+     * soluciones del lote, o los mosaicos.
+     * @return El directorio del lote o de los mosaicos, o <code>null</code>
+     *         si el lote se escribe concatenado en la salida estándar.
+     */
+    public String obtenerDirectorio() {
+        return directorio;
+    }
+
+    /**
+     * Regresa de dónde se leen los laberintos por resolver en lote.
+     * @return El directorio de los laberintos, o "-" si se leen concatenados
+     *         de la entrada estándar.
+     */
+    public String obtenerEntrada() {
+        return entrada;
+    }
+
+    /**
+     * Regresa el puerto donde escucha el servidor.
+     * @return El puerto donde escucha el servidor.
+     */
+    public int obtenerPuerto() {
+        return puerto;
+    }
+
+    /**
+     * Regresa el formato en el que se escribe la solución.
+     * @return El formato en el que se escribe la solución.
+     */
+    public FormatoSalida obtenerFormato() {
+        return formato;
+    }
+
+    /**
+     * Regresa el tipo de generador con el que se genera.
+     * @return El tipo de generador con el que se genera.
+     */
+    public TipoGenerador obtenerTipo() {
+        return tipo;
+    }
+
+    /**
+     * Regresa la fuente de números aleatorios con la que se genera.
+     * @return La fuente de números aleatorios con la que se genera.
+     */
+    public TipoAleatorio obtenerAleatorio() {
+        return aleatorio;
+    }
+
     /**
      * Regresa la semilla dada por el programa.
      * @return La semilla dada por el programa.
@@ -217,18 +438,18 @@ public class Configuracion {
     }
     
     /**
-     * Regresa el ancho del laberinto convierte el byte a entero.
+     * Regresa el ancho del laberinto.
      * @return El ancho del laberinto.
      */
     public int obtenerAncho() {
-        return ancho & 0xFF;
+        return ancho;
     }
 
     /**
-     * Regresa el alto del laberinto convierte el byte a un entero.
+     * Regresa el alto del laberinto.
      * @return El alto del laberinto.
      */
     public int obtenerAlto() {
-        return alto & 0xFF;
+        return alto;
     }
 }
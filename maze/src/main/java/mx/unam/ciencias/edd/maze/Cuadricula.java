@@ -0,0 +1,254 @@
+package mx.unam.ciencias.edd.maze;
+
+import java.util.Arrays;
+
+/**
+ * <p>Clase que guarda los cuartos de un laberinto de forma compacta.</p>
+ * <p>Cada cuarto ocupa un solo byte de un arreglo, con la misma codificación
+ * de puertas y puntaje que {@link Cuarto} y que el formato MAZE. Los cuartos
+ * se identifican por su índice <code>y * ancho + x</code>.</p>
+ */
+public class Cuadricula {
+    // Dato de un cuarto sin puertas y con puntaje cero.
+    private static final byte VACIO = 0b00001111;
+    /** El peso máximo de pasar entre dos cuartos: dos puntajes de 15 más uno. */
+    public static final int PESO_MAXIMO = 31;
+    private final byte[] datos;
+    private final int ANCHO;
+    private final int ALTO;
+
+    /**
+     * Crea una cuadrícula de cuartos sin puertas y con puntaje cero.
+     * @param ancho El ancho de la cuadrícula.
+     * @param alto El alto de la cuadrícula.
+     * @throws IllegalArgumentException Si las dimensiones no son positivas o
+     *         la cuadrícula no cabe en un arreglo.
+     */
+    public Cuadricula(int ancho, int alto) throws IllegalArgumentException {
+        this(new byte[tamanio(ancho, alto)], ancho, alto);
+        Arrays.fill(datos, VACIO);
+    }
+
+    /**
+     * Crea una cuadrícula que usa directamente el arreglo de datos dado, sin copiarlo.
+     * @param datos Los datos de los cuartos, renglón por renglón.
+     * @param ancho El ancho de la cuadrícula.
+     * @param alto El alto de la cuadrícula.
+     * @throws IllegalArgumentException Si la cantidad de datos no corresponde
+     *         con las dimensiones.
+     */
+    public Cuadricula(byte[] datos, int ancho, int alto) throws IllegalArgumentException {
+        if(datos.length != tamanio(ancho, alto))
+            throw new IllegalArgumentException("Ancho o alto incoherentes.");
+        this.datos = datos;
+        ANCHO = ancho;
+        ALTO = alto;
+    }
+
+    /*
+     * Calcula el número de cuartos, verificando que quepan en un arreglo.
+     */
+    private static int tamanio(int ancho, int alto) {
+        long total = (long) ancho * alto;
+        if(ancho <= 0 || alto <= 0 || total > Integer.MAX_VALUE - 8)
+            throw new IllegalArgumentException("Dimensiones inválidas para la cuadrícula.");
+        return (int) total;
+    }
+
+    /**
+     * Regresa el índice del cuarto con las coordenadas dadas.
+     * @param x La coordenada x.
+     * @param y La coordenada y.
+     * @return El índice del cuarto.
+     */
+    public int indice(int x, int y) {
+        return y * ANCHO + x;
+    }
+
+    /**
+     * Regresa la coordenada x de un índice.
+     * @param indice El índice del cuarto.
+     * @return La coordenada x del cuarto.
+     */
+    public int obtenerX(int indice) {
+        return indice % ANCHO;
+    }
+
+    /**
+     * Regresa la coordenada y de un índice.
+     * @param indice El índice del cuarto.
+     * @return La coordenada y del cuarto.
+     */
+    public int obtenerY(int indice) {
+        return indice / ANCHO;
+    }
+
+    /**
+     * Dice si las coordenadas están dentro de la cuadrícula.
+     * @param x La coordenada x.
+     * @param y La coordenada y.
+     * @return <code>true</code> si las coordenadas son válidas, <code>false</code> en otro caso.
+     */
+    public boolean contiene(int x, int y) {
+        return x >= 0 && x < ANCHO && y >= 0 && y < ALTO;
+    }
+
+    /**
+     * Regresa el índice del cuarto adyacente en la dirección dada.
+     * @param indice El índice del cuarto.
+     * @param direccion La dirección del cuarto adyacente.
+     * @return El índice del cuarto adyacente, o -1 si está fuera de la cuadrícula.
+     */
+    public int vecino(int indice, Direccion direccion) {
+        int x = obtenerX(indice) + direccion.deltaX;
+        int y = obtenerY(indice) + direccion.deltaY;
+        return contiene(x, y) ? indice(x, y) : -1;
+    }
+
+    /**
+     * Regresa el índice del cuarto al que lleva la puerta de un cuarto en la
+     * dirección dada.
+     * @param indice El índice del cuarto.
+     * @param direccion La dirección de la puerta.
+     * @return El índice del cuarto al que lleva la puerta, o -1 si no hay
+     *         puerta o lleva fuera de la cuadrícula.
+     */
+    public int conexion(int indice, Direccion direccion) {
+        if(!Cuarto.tienePuerta(datos[indice], direccion))
+            return -1;
+        switch (direccion) {
+            case NORTE:
+                return indice >= ANCHO ? indice - ANCHO : -1;
+            case SUR:
+                return indice < datos.length - ANCHO ? indice + ANCHO : -1;
+            case ESTE:
+                return (indice + 1) % ANCHO != 0 ? indice + 1 : -1;
+            case OESTE:
+                return indice % ANCHO != 0 ? indice - 1 : -1;
+            default:
+                return -1;
+        }
+    }
+
+    /**
+     * Regresa el peso de pasar entre dos cuartos: la suma de sus puntajes más uno.
+     * @param a El índice de un cuarto.
+     * @param b El índice del otro cuarto.
+     * @return El peso de pasar entre los cuartos.
+     */
+    public int obtenerPeso(int a, int b) {
+        return obtenerPuntaje(a) + obtenerPuntaje(b) + 1;
+    }
+
+    /**
+     * Regresa el dato de un cuarto.
+     * @param indice El índice del cuarto.
+     * @return El dato del cuarto.
+     */
+    public byte obtenerDato(int indice) {
+        return datos[indice];
+    }
+
+    /**
+     * Dice si un cuarto tiene una puerta en la dirección dada.
+     * @param indice El índice del cuarto.
+     * @param direccion La dirección de la puerta.
+     * @return <code>true</code> si el cuarto tiene la puerta, <code>false</code> en otro caso.
+     */
+    public boolean tienePuerta(int indice, Direccion direccion) {
+        return Cuarto.tienePuerta(datos[indice], direccion);
+    }
+
+    /**
+     * Agrega una puerta a un cuarto.
+     * @param indice El índice del cuarto.
+     * @param direccion La dirección de la puerta.
+     */
+    public void establecerPuerta(int indice, Direccion direccion) {
+        datos[indice] = Cuarto.agregaPuerta(datos[indice], direccion);
+    }
+
+    /**
+     * Abre una puerta entre un cuarto y su adyacente en la dirección dada,
+     * agregando la puerta en ambos cuartos.
+     * @param indice El índice del cuarto.
+     * @param direccion La dirección del cuarto adyacente, que debe estar
+     *        dentro de la cuadrícula.
+     */
+    public void abrePuerta(int indice, Direccion direccion) {
+        establecerPuerta(indice, direccion);
+        establecerPuerta(vecino(indice, direccion), direccion.opuesta());
+    }
+
+    /**
+     * Regresa el puntaje de un cuarto.
+     * @param indice El índice del cuarto.
+     * @return El puntaje del cuarto.
+     */
+    public int obtenerPuntaje(int indice) {
+        return Cuarto.obtenerPuntaje(datos[indice]);
+    }
+
+    /**
+     * Establece el puntaje de un cuarto.
+     * @param indice El índice del cuarto.
+     * @param puntaje El puntaje del cuarto.
+     * @throws IllegalArgumentException Si el puntaje no esta en un rango del 0 al 15.
+     */
+    public void establecerPuntaje(int indice, int puntaje) throws IllegalArgumentException {
+        if(puntaje < 0 || puntaje > 15)
+            throw new IllegalArgumentException("El puntaje debe ser un número del 0 al 15.");
+        datos[indice] |= (byte) (puntaje << 4);
+    }
+
+    /**
+     * Dice si un cuarto todavía no tiene puertas.
+     * @param indice El índice del cuarto.
+     * @return <code>true</code> si el cuarto no tiene puertas, <code>false</code> en otro caso.
+     */
+    public boolean esVacio(int indice) {
+        return (datos[indice] & 0b00001111) == 0b00001111;
+    }
+
+    /**
+     * Regresa una copia del cuarto con las coordenadas dadas.
+     * @param x La coordenada x.
+     * @param y La coordenada y.
+     * @return El cuarto, o <code>null</code> si las coordenadas están fuera de la cuadrícula.
+     */
+    public Cuarto obtenerCuarto(int x, int y) {
+        return contiene(x, y) ? new Cuarto(datos[indice(x, y)]) : null;
+    }
+
+    /**
+     * Regresa el arreglo con los datos de los cuartos, renglón por renglón.
+     * @return El arreglo con los datos de los cuartos.
+     */
+    public byte[] obtenerDatos() {
+        return datos;
+    }
+
+    /**
+     * Regresa el número de cuartos.
+     * @return El número de cuartos.
+     */
+    public int obtenerTotal() {
+        return datos.length;
+    }
+
+    /**
+     * Regresa el ancho de la cuadrícula.
+     * @return El ancho de la cuadrícula.
+     */
+    public int obtenerAncho() {
+        return ANCHO;
+    }
+
+    /**
+     * Regresa el alto de la cuadrícula.
+     * @return El alto de la cuadrícula.
+     */
+    public int obtenerAlto() {
+        return ALTO;
+    }
+}
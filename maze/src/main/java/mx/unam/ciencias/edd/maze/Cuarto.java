@@ -4,21 +4,22 @@ import mx.unam.ciencias.edd.Conjunto;
 
 /**
  * <p>Clase que representa un cuarto en el laberinto.</p>
- * <p>Se maneja la representación del cuarto en un byte.</p>
+ * <p>Se maneja la representación del cuarto en un byte. Los cuatro bits menos
+ * significativos indican las puertas (un bit apagado es una puerta) y los cuatro
+ * más significativos el puntaje.</p>
+ * <p>El cuarto no guarda más información que su byte; los métodos estáticos
+ * permiten interpretar los bytes de una {@link Cuadricula} sin crear objetos.</p>
  */
 public class Cuarto {
     // Permite examinar la información del byte.
-    private final byte[] MASCARAS_BITS = {0b1110, 0b1101, 0b1011, 0b0111};
-    // Evita repeticiones.
-    private Conjunto<Direccion> puertas;
-    private byte puntaje;
+    private static final byte[] MASCARAS_BITS = {0b1110, 0b1101, 0b1011, 0b0111};
     private byte dato;
+
     /**
-     *Constructor por omisión, establece el dato del cuarto que 
+     *Constructor por omisión, establece el dato del cuarto que
      * se interpreta como puntaje cero y ninguna puerta.
      */
     public Cuarto () {
-        puertas = new Conjunto<>(4);
         dato = 0b00001111;
     }
 
@@ -28,26 +29,39 @@ public class Cuarto {
      */
     public Cuarto(byte dato) {
         this.dato = dato;
-        puertas = new Conjunto<>();
-        // Establece las puertas y el puntaje del cuarto.
-        for(byte mascara : MASCARAS_BITS) {
-            // Examina los primeros cuatro bytes.
-            // Si no cambio el valor al aplicar la máscara indica la presencia
-            // de una puerta.
-            if(!cambioValor(mascara))
-                puertas.agrega(Direccion.obtenerDireccion(mascara));
-        }
-        // Prepara los 4 bits mas significativos para su análisis.
-        establecerPuntaje((byte) ((dato >> 4) & 0b00001111));
     }
 
-    /*
-     * Dice si el valor del dato se modificó al aplicar la mascara.
+    /**
+     * Dice si el dato de un cuarto tiene una puerta en la dirección dada.
+     * @param dato El dato del cuarto.
+     * @param direccion La dirección de la puerta.
+     * @return <code>true</code> si el cuarto tiene la puerta, <code>false</code> en otro caso.
      */
-    private boolean cambioValor(byte mascara) {
-        byte pivote = (byte) (dato & 0b00001111);
-        byte temp = (byte) (pivote & mascara);
-        return pivote != temp;
+    public static boolean tienePuerta(byte dato, Direccion direccion) {
+        if(direccion == Direccion.NINGUNA)
+            return false;
+        // La puerta está presente si el bit que apaga la máscara ya estaba apagado.
+        return (dato & ~direccion.obtenerDato() & 0b00001111) == 0;
+    }
+
+    /**
+     * Regresa el dato de un cuarto con una nueva puerta.
+     * @param dato El dato del cuarto.
+     * @param direccion La dirección de la puerta a agregar.
+     * @return El dato con la puerta agregada.
+     */
+    public static byte agregaPuerta(byte dato, Direccion direccion) {
+        // Evita modificar los últimos cuatro bits.
+        return (byte) (dato & (0b11110000 | direccion.obtenerDato()));
+    }
+
+    /**
+     * Regresa el puntaje guardado en el dato de un cuarto.
+     * @param dato El dato del cuarto.
+     * @return El puntaje del cuarto.
+     */
+    public static int obtenerPuntaje(byte dato) {
+        return (dato >> 4) & 0b00001111;
     }
 
     /**
@@ -55,32 +69,36 @@ public class Cuarto {
      * @param direccion La dirección de la puerta a agregar.
      */
     public void establecerPuerta(Direccion direccion) {
-        puertas.agrega(direccion);
-        // Evita modificar los últimos cuatro bits.
-        // Agrega la puerta al byte pivote (0b11110000).
-        // Actualiza al dato.
-        dato &= (0b11110000 | direccion.obtenerDato());
+        dato = agregaPuerta(dato, direccion);
     }
 
     /**
      * Establece el puntaje del cuarto.
      * @param puntaje El byte del puntaje.
-     * @throws IllegalArgumentException Si el puntaje no esta en un rango del 0 al 15. 
+     * @throws IllegalArgumentException Si el puntaje no esta en un rango del 0 al 15.
      */
     public void establecerPuntaje(byte puntaje) throws IllegalArgumentException {
         if(puntaje < 0 || puntaje > 15)
             throw new IllegalArgumentException("El puntaje debe ser un número del 0 al 15.");
-        this.puntaje = puntaje;
         byte temp = (byte) (puntaje << 4);
         dato |= temp;
     }
 
+    /**
+     * Dice si el cuarto tiene una puerta en la dirección dada.
+     * @param direccion La dirección de la puerta.
+     * @return <code>true</code> si el cuarto tiene la puerta, <code>false</code> en otro caso.
+     */
+    public boolean tienePuerta(Direccion direccion) {
+        return tienePuerta(dato, direccion);
+    }
+
     /**
      * Regresa el puntaje del cuarto.
      * @return El puntaje del cuarto.
      */
     public int obtenerPuntaje() {
-        return puntaje;
+        return obtenerPuntaje(dato);
     }
 
     /**
@@ -93,9 +111,17 @@ public class Cuarto {
 
     /**
      * Regresa el conjunto de las direcciones de las puertas del cuarto.
+     * El conjunto se construye en cada llamada, es preferible usar
+     * {@link #tienePuerta(Direccion)}.
      * @return El conjutno de las direcciones de las puertas del cuarto.
      */
     public Conjunto<Direccion> obtenerPuertas() {
+        Conjunto<Direccion> puertas = new Conjunto<>(4);
+        for(byte mascara : MASCARAS_BITS) {
+            Direccion direccion = Direccion.obtenerDireccion(mascara);
+            if(tienePuerta(direccion))
+                puertas.agrega(direccion);
+        }
         return puertas;
     }
 }
@@ -87,6 +87,35 @@ public enum Direccion {
         }
     }
 
+    /**
+     * Obtiene la dirección que resulta de girar a la derecha, considerando
+     * que la coordenada y crece hacia el sur.
+     * @return La dirección a la derecha.
+     */
+    public Direccion derecha() {
+        switch (this) {
+            case NORTE:
+                return Direccion.ESTE;
+            case ESTE:
+                return Direccion.SUR;
+            case SUR:
+                return Direccion.OESTE;
+            case OESTE:
+                return Direccion.NORTE;
+            default:
+                return Direccion.NINGUNA;
+        }
+    }
+
+    /**
+     * Obtiene la dirección que resulta de girar a la izquierda, considerando
+     * que la coordenada y crece hacia el sur.
+     * @return La dirección a la izquierda.
+     */
+    public Direccion izquierda() {
+        return derecha().opuesta();
+    }
+
     /**
      * Obtiene el valor en binario correspondiente a la dirección.
      * @return El valor en binario correspondiente a la dirección.
@@ -0,0 +1,171 @@
+package mx.unam.ciencias.edd.maze;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * <p>Clase que representa el encabezado de un archivo de laberinto.</p>
+ * <p>Hay dos formatos:
+ * - "MAZE": alto y ancho en un byte cada uno (6 bytes en total).
+ * - "MAZ2": banderas, alto y ancho en enteros de 32 bits con el byte más
+ *   significativo primero (16 bytes en total).
+ * Después del encabezado siguen los bytes de los cuartos, renglón por renglón.</p>
+ */
+public class Encabezado {
+    /** Formato clásico. */
+    public static final String FORMATO = "MAZE";
+    /** Formato extendido. */
+    public static final String FORMATO_EXTENDIDO = "MAZ2";
+    // Ninguna bandera está definida todavía, están reservadas.
+    private static final int BANDERAS_CONOCIDAS = 0;
+    // Dimensión máxima que cabe en el formato clásico.
+    private static final int MAXIMO_CLASICO = 255;
+    private final boolean extendido;
+    private final int banderas;
+    private final int ancho;
+    private final int alto;
+
+    /**
+     * Crea el encabezado de un laberinto con las dimensiones dadas. Si alguna
+     * dimensión no cabe en un byte se usa el formato extendido, en otro caso
+     * el clásico.
+     * @param ancho El ancho del laberinto.
+     * @param alto El alto del laberinto.
+     */
+    public Encabezado(int ancho, int alto) {
+        this(ancho > MAXIMO_CLASICO || alto > MAXIMO_CLASICO, 0, ancho, alto);
+    }
+
+    /* Crea un encabezado con todos sus campos. */
+    private Encabezado(boolean extendido, int banderas, int ancho, int alto) {
+        this.extendido = extendido;
+        this.banderas = banderas;
+        this.ancho = ancho;
+        this.alto = alto;
+    }
+
+    /**
+     * Lee un encabezado de un canal, consumiendo exactamente sus bytes.
+     * @param canal El canal de donde se lee.
+     * @return El encabezado leído.
+     * @throws IOException Si ocurrió un error al leer.
+     * @throws IllegalArgumentException Si el formato es inválido.
+     */
+    public static Encabezado lee(ReadableByteChannel canal) throws IOException {
+        Encabezado encabezado = leeSiguiente(canal);
+        if(encabezado == null)
+            throw new IllegalArgumentException("Formato inválido");
+        return encabezado;
+    }
+
+    /**
+     * Lee el siguiente encabezado de un canal con varios laberintos
+     * concatenados, consumiendo exactamente sus bytes.
+     * @param canal El canal de donde se lee.
+     * @return El encabezado leído, o <code>null</code> si el canal ya terminó.
+     * @throws IOException Si ocurrió un error al leer.
+     * @throws IllegalArgumentException Si el formato es inválido.
+     */
+    public static Encabezado leeSiguiente(ReadableByteChannel canal) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(16);
+        buffer.limit(1);
+        if(!LectorEscritor.llena(canal, buffer))
+            return null;
+        buffer.limit(4);
+        if(!LectorEscritor.llena(canal, buffer))
+            throw new IllegalArgumentException("Formato inválido");
+        String formato = new String(buffer.array(), 0, 4, StandardCharsets.US_ASCII);
+        if(formato.equals(FORMATO)) {
+            buffer.limit(6);
+            if(!LectorEscritor.llena(canal, buffer))
+                throw new IllegalArgumentException("Formato inválido");
+            return nuevo(false, 0, buffer.get(5) & 0xFF, buffer.get(4) & 0xFF);
+        }
+        if(!formato.equals(FORMATO_EXTENDIDO))
+            throw new IllegalArgumentException("Formato inválido");
+        buffer.limit(16);
+        if(!LectorEscritor.llena(canal, buffer))
+            throw new IllegalArgumentException("Formato inválido");
+        int banderas = buffer.getInt(4);
+        if((banderas & ~BANDERAS_CONOCIDAS) != 0)
+            throw new IllegalArgumentException("Banderas desconocidas en el formato.");
+        return nuevo(true, banderas, buffer.getInt(12), buffer.getInt(8));
+    }
+
+    /*
+     * Crea un encabezado leído, validando que sus dimensiones sean positivas.
+     */
+    private static Encabezado nuevo(boolean extendido, int banderas, int ancho, int alto) {
+        if(alto <= 0 || ancho <= 0)
+            throw new IllegalArgumentException("Formato inválido");
+        return new Encabezado(extendido, banderas, ancho, alto);
+    }
+
+    /**
+     * Escribe el encabezado en un buffer, a partir de su posición actual.
+     * @param buffer El buffer donde se escribe.
+     */
+    public void escribe(ByteBuffer buffer) {
+        String formato = extendido ? FORMATO_EXTENDIDO : FORMATO;
+        for(int i = 0; i < formato.length(); i++)
+            buffer.put((byte) formato.charAt(i));
+        if(extendido) {
+            buffer.putInt(banderas);
+            buffer.putInt(alto);
+            buffer.putInt(ancho);
+        } else {
+            buffer.put((byte) alto);
+            buffer.put((byte) ancho);
+        }
+    }
+
+    /**
+     * Regresa el número de bytes que ocupa el encabezado.
+     * @return El número de bytes que ocupa el encabezado.
+     */
+    public int obtenerLongitud() {
+        return extendido ? 16 : 6;
+    }
+
+    /**
+     * Regresa el número de cuartos que siguen al encabezado.
+     * @return El número de cuartos.
+     */
+    public long obtenerTotal() {
+        return (long) ancho * alto;
+    }
+
+    /**
+     * Dice si el encabezado usa el formato extendido.
+     * @return <code>true</code> si el formato es "MAZ2", <code>false</code> si es "MAZE".
+     */
+    public boolean esExtendido() {
+        return extendido;
+    }
+
+    /**
+     * Regresa las banderas del encabezado.
+     * @return Las banderas del encabezado.
+     */
+    public int obtenerBanderas() {
+        return banderas;
+    }
+
+    /**
+     * Regresa el ancho del laberinto.
+     * @return El ancho del laberinto.
+     */
+    public int obtenerAncho() {
+        return ancho;
+    }
+
+    /**
+     * Regresa el alto del laberinto.
+     * @return El alto del laberinto.
+     */
+    public int obtenerAlto() {
+        return alto;
+    }
+}
@@ -1,23 +1,35 @@
 package mx.unam.ciencias.edd.maze;
 
+import java.util.Locale;
+
 /**
  * <p>Clase para dibujar figuras con svg.</p>
+ * <p>Las líneas, los círculos y los rectángulos se arman escribiendo los
+ * números directamente en un buffer que se reutiliza, en lugar de usar
+ * {@link String#format}; el resultado es el mismo que con <code>%.1f</code>,
+ * siempre con punto decimal. Las demás etiquetas, como el inicio del svg, se
+ * formatean con {@link Locale#ROOT}, así que todo el documento usa punto
+ * decimal sin importar el idioma del sistema, como pide svg. Como el buffer
+ * es del objeto, un objeto de esta clase no se debe usar desde varios hilos
+ * a la vez.</p>
  */
 public class FigurasSVG {
     // Figuras disponibles.
-    private final String RECTANGULO = "<rect x='%.1f' y='%.1f' width='%.1f' height='%.1f' style=\"fill:%s; stroke:%s; stroke-width:%.1f;\" />\n";
     private final String POLIGONO = "<polygon points='%.1f, %.1f %.1f, %.1f  %.1f, %.1f'/>\n";
-    private final String LINEA = "<line x1='%.1f' y1='%.1f' x2='%.1f' y2='%.1f' stroke='%s' stroke-width='%.1f' />\n";
-    private final String CIRCULO = "<circle cx='%.1f' cy='%.1f' r='%.1f' stroke='%s' stroke-width='%.1f' fill='%s' />\n";
     private final String TEXTO = "<text fill='%s' font-family='%s' font-size='%.1f' x='%.1f' y='%.1f' text-anchor='%s'>%s</text>\n";
-    private final static String ESTRCTURA_SVG = "<?xml version='1.0' encoding='UTF-8' ?>\n<svg width='%.1f' height='%.1f'>\n%s</svg>";
+    private final static String INICIO_SVG = "<?xml version='1.0' encoding='UTF-8' ?>\n<svg width='%.1f' height='%.1f'>\n";
+    private final static String FIN_SVG = "</svg>";
+    private final static String ESTRCTURA_SVG = INICIO_SVG + "%s" + FIN_SVG;
     private final static String DIBUJO = "<g>\n%s</g>";
+    private final static String FIN_GRUPO = "</g>\n";
     private String color;
     private String colorRelleno;
     private String fuente;
     private String anchoTexto;
     private double grosor;
     private double tamanioFuente;
+    // Donde se arman las etiquetas.
+    private final StringBuilder etiqueta = new StringBuilder(128);
 
     /**
      * Inicializa los atributos de las figuras.
@@ -40,7 +52,15 @@ public class FigurasSVG {
      * @return Una etiqueta svg de un rectángulo.
      */
     public String rectangulo(double x, double y, double ancho, double alto) {
-        return String.format(RECTANGULO, x, y, ancho, alto, colorRelleno, color, grosor);
+        etiqueta.setLength(0);
+        etiqueta.append("<rect x='");
+        agregaNumero(etiqueta, x).append("' y='");
+        agregaNumero(etiqueta, y).append("' width='");
+        agregaNumero(etiqueta, ancho).append("' height='");
+        agregaNumero(etiqueta, alto).append("' style=\"fill:").append(colorRelleno);
+        etiqueta.append("; stroke:").append(color).append("; stroke-width:");
+        agregaNumero(etiqueta, grosor).append(";\" />\n");
+        return etiqueta.toString();
     }
 
     /**
@@ -52,7 +72,14 @@ public class FigurasSVG {
      * @return Una etiqueta svg de una línea.
      */
     public String linea(double x1, double y1, double x2, double y2) {
-        return String.format(LINEA, x1, y1, x2, y2, color, grosor);
+        etiqueta.setLength(0);
+        etiqueta.append("<line x1='");
+        agregaNumero(etiqueta, x1).append("' y1='");
+        agregaNumero(etiqueta, y1).append("' x2='");
+        agregaNumero(etiqueta, x2).append("' y2='");
+        agregaNumero(etiqueta, y2).append("' stroke='").append(color).append("' stroke-width='");
+        agregaNumero(etiqueta, grosor).append("' />\n");
+        return etiqueta.toString();
     }
 
     /**
@@ -63,7 +90,35 @@ public class FigurasSVG {
      * @return Una etiqueta svg de un círculo.
      */
     public String circulo(double x, double y, double radio) {
-        return String.format(CIRCULO, x, y, radio, color, grosor, colorRelleno);
+        etiqueta.setLength(0);
+        etiqueta.append("<circle cx='");
+        agregaNumero(etiqueta, x).append("' cy='");
+        agregaNumero(etiqueta, y).append("' r='");
+        agregaNumero(etiqueta, radio).append("' stroke='").append(color).append("' stroke-width='");
+        agregaNumero(etiqueta, grosor).append("' fill='").append(colorRelleno).append("' />\n");
+        return etiqueta.toString();
+    }
+
+    /**
+     * Agrega un número con un decimal, igual que <code>%.1f</code> con punto
+     * decimal. Los números con a lo más un decimal exacto, como las
+     * coordenadas enteras o con medios, se escriben sin formateador; los
+     * demás se formatean con {@link String#format}.
+     * @param buffer Donde se agrega el número.
+     * @param numero El número.
+     * @return El mismo buffer.
+     */
+    static StringBuilder agregaNumero(StringBuilder buffer, double numero) {
+        double decimas = numero * 10;
+        if(decimas != Math.rint(decimas) || Math.abs(decimas) >= 1e15)
+            return buffer.append(String.format(Locale.ROOT, "%.1f", numero));
+        long valor = (long) decimas;
+        // El signo se revisa en los bits para escribir -0.0 como el formateador.
+        if(Double.doubleToRawLongBits(numero) < 0) {
+            buffer.append('-');
+            valor = -valor;
+        }
+        return buffer.append(valor / 10).append('.').append((char) ('0' + valor % 10));
     }
 
     /**
@@ -74,7 +129,7 @@ public class FigurasSVG {
      * @return Una etiqueta svg de un texto.
      */
     public String texto(String texto, double x, double y) {
-        return String.format(TEXTO, color, fuente, tamanioFuente, x, y, anchoTexto, texto);
+        return String.format(Locale.ROOT, TEXTO, color, fuente, tamanioFuente, x, y, anchoTexto, texto);
     }
 
     /**
@@ -100,7 +155,7 @@ public class FigurasSVG {
      * @return Una etiqueta svg que representa un triángulo.
      */
     public String triangulo(double x, double y, double x1, double y1, double x2, double y2) {
-        return String.format(POLIGONO, x, y, x1, y1, x2, y2);
+        return String.format(Locale.ROOT, POLIGONO, x, y, x1, y1, x2, y2);
     }
 
     /**
@@ -112,6 +167,36 @@ public class FigurasSVG {
         return String.format(DIBUJO, dibujo);
     }
 
+    /**
+     * Regresa el inicio de un grupo svg que fija una sola vez el estilo de
+     * los trazos que contiene: sin relleno, con el color y el grosor del
+     * objeto y con extremos cuadrados, que alargan cada segmento la mitad
+     * del grosor como las líneas. Dentro del grupo las coordenadas se
+     * desplazan y se escalan; el grosor se ajusta a la escala. Se cierra con
+     * {@link #finGrupo}.
+     * @param x El desplazamiento horizontal de las coordenadas.
+     * @param y El desplazamiento vertical de las coordenadas.
+     * @param escala Lo que mide en el dibujo una unidad de las coordenadas.
+     * @return El inicio de un grupo svg.
+     */
+    public String inicioGrupo(double x, double y, double escala) {
+        etiqueta.setLength(0);
+        etiqueta.append("<g transform='translate(");
+        agregaNumero(etiqueta, x).append(' ');
+        agregaNumero(etiqueta, y).append(") scale(");
+        agregaNumero(etiqueta, escala).append(")' fill='none' stroke='").append(color).append("' stroke-width='");
+        agregaNumero(etiqueta, grosor / escala).append("' stroke-linecap='square'>\n");
+        return etiqueta.toString();
+    }
+
+    /**
+     * Regresa el final de un grupo empezado con {@link #inicioGrupo}.
+     * @return El final de un grupo svg.
+     */
+    public static String finGrupo() {
+        return FIN_GRUPO;
+    }
+
     /**
      * Regresa el formato básico para que se interprete un archivo svg.
      * @param ancho El ancho de la imagen.
@@ -120,7 +205,26 @@ public class FigurasSVG {
      * @return El formato básico para que se interprete un archivo svg.
      */
     public static String estructuraSVG(double ancho, double alto, String elemento) {
-        return String.format(ESTRCTURA_SVG, ancho, alto, elemento);
+        return String.format(Locale.ROOT, ESTRCTURA_SVG, ancho, alto, elemento);
+    }
+
+    /**
+     * Regresa el inicio de un archivo svg, para escribir las etiquetas
+     * conforme se generan; se cierra con {@link #finSVG}.
+     * @param ancho El ancho de la imagen.
+     * @param alto El alto de la imagen.
+     * @return El inicio de un archivo svg.
+     */
+    public static String inicioSVG(double ancho, double alto) {
+        return String.format(Locale.ROOT, INICIO_SVG, ancho, alto);
+    }
+
+    /**
+     * Regresa el final de un archivo svg empezado con {@link #inicioSVG}.
+     * @return El final de un archivo svg.
+     */
+    public static String finSVG() {
+        return FIN_SVG;
     }
 
     /**
@@ -0,0 +1,99 @@
+package mx.unam.ciencias.edd.maze;
+
+/**
+ * Enumeración para los formatos en los que se escribe la solución de un laberinto.
+ */
+public enum FormatoSalida {
+    /**
+     * El laberinto y su solución dibujados en svg.
+     */
+    SVG,
+    /**
+     * El laberinto y su solución dibujados en svg compacto, con las paredes
+     * y la solución como dos trazos.
+     */
+    TRAZO,
+    /**
+     * Solo la trayectoria de la solución en binario, con dos bits por paso.
+     */
+    RUTA,
+    /**
+     * Solo la trayectoria de la solución en texto, con una letra por paso.
+     */
+    TEXTO,
+    /**
+     * Las paredes del laberinto como imagen pbm de un bit por pixel.
+     */
+    PBM,
+    /**
+     * El laberinto y su solución como imagen pgm en tonos de gris.
+     */
+    PGM,
+    /**
+     * El laberinto y su solución como imagen png con paleta de colores.
+     */
+    PNG,
+    /**
+     * El laberinto y su solución como una pirámide de mosaicos png en un
+     * directorio, para explorarlo con acercamientos.
+     */
+    MOSAICO;
+
+    /**
+     * Obtiene el formato con el nombre dado, sin importar mayúsculas.
+     * @param nombre El nombre del formato.
+     * @return El formato con el nombre dado.
+     * @throws IllegalArgumentException Si no hay un formato con ese nombre.
+     */
+    public static FormatoSalida obtenerFormato(String nombre) {
+        for(FormatoSalida formato : values())
+            if(formato.obtenerNombre().equals(nombre.toLowerCase()))
+                return formato;
+        throw new IllegalArgumentException("Formato de salida desconocido: " + nombre);
+    }
+
+    /**
+     * Obtiene el nombre del formato como se usa en la línea de comandos.
+     * @return El nombre del formato.
+     */
+    public String obtenerNombre() {
+        return name().toLowerCase();
+    }
+
+    /**
+     * Dice si el formato es un dibujo svg del laberinto.
+     * @return <code>true</code> si el formato es svg, con líneas o con
+     *         trazos, <code>false</code> en otro caso.
+     */
+    public boolean esSVG() {
+        return this == SVG || this == TRAZO;
+    }
+
+    /**
+     * Dice si el formato es una imagen de pixeles del laberinto.
+     * @return <code>true</code> si el formato es pbm, pgm o png,
+     *         <code>false</code> en otro caso.
+     */
+    public boolean esImagen() {
+        return this == PBM || this == PGM || this == PNG;
+    }
+
+    /**
+     * Obtiene la extensión de los archivos con este formato.
+     * @return La extensión de los archivos, sin el punto.
+     */
+    public String obtenerExtension() {
+        switch (this) {
+            case RUTA:
+                return "ruta";
+            case TEXTO:
+                return "txt";
+            case PBM:
+            case PGM:
+            case PNG:
+                return obtenerNombre();
+            default:
+                return "svg";
+        }
+    }
+}
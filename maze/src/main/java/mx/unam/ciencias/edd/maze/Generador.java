@@ -0,0 +1,41 @@
+package mx.unam.ciencias.edd.maze;
+
+/**
+ * <p>Interfaz para los algoritmos que generan un laberinto.</p>
+ * <p>Un generador abre las puertas y asigna los puntajes de los cuartos de un
+ * rectángulo de la cuadrícula, que al inicio no tienen puertas ni puntaje, de
+ * modo que los cuartos del rectángulo formen un árbol: entre cualesquiera
+ * dos cuartos hay exactamente una trayectoria. No abre puertas hacia fuera
+ * del rectángulo. Las implementaciones no guardan estado, así que un mismo
+ * generador se puede usar desde varios hilos en rectángulos distintos.</p>
+ */
+public interface Generador {
+
+    /**
+     * Genera un laberinto perfecto en un rectángulo de la cuadrícula.
+     * @param cuadricula La cuadrícula de cuartos.
+     * @param aleatorio El generador de números aleatorios.
+     * @param x0 La coordenada x de la esquina superior izquierda.
+     * @param y0 La coordenada y de la esquina superior izquierda.
+     * @param ancho El ancho del rectángulo.
+     * @param alto El alto del rectángulo.
+     */
+    public void genera(Cuadricula cuadricula, Aleatorio aleatorio, int x0, int y0, int ancho, int alto);
+
+    /**
+     * Asigna a cada cuarto del rectángulo un puntaje aleatorio del 1 al 15,
+     * renglón por renglón.
+     * @param cuadricula La cuadrícula de cuartos.
+     * @param aleatorio El generador de números aleatorios.
+     * @param x0 La coordenada x de la esquina superior izquierda.
+     * @param y0 La coordenada y de la esquina superior izquierda.
+     * @param ancho El ancho del rectángulo.
+     * @param alto El alto del rectángulo.
+     */
+    public static void asignaPuntajes(Cuadricula cuadricula, Aleatorio aleatorio,
+                                      int x0, int y0, int ancho, int alto) {
+        for(int y = y0; y < y0 + alto; y++)
+            for(int x = x0; x < x0 + ancho; x++)
+                cuadricula.establecerPuntaje(cuadricula.indice(x, y), aleatorio.nextInt(15) + 1);
+    }
+}
@@ -0,0 +1,40 @@
+package mx.unam.ciencias.edd.maze;
+
+/**
+ * <p>Clase que genera un laberinto con el algoritmo del árbol binario.</p>
+ * <p>Cada cuarto abre una puerta al norte o al este, al azar entre las que no
+ * salen del rectángulo. Es el generador más rápido: una sola pasada sin
+ * memoria adicional; el laberinto tiene pasillos largos en los bordes norte y
+ * este, y un sesgo diagonal marcado.</p>
+ */
+public class GeneradorBinario implements Generador {
+
+    /**
+     * Genera un laberinto perfecto en un rectángulo de la cuadrícula.
+     * @param cuadricula La cuadrícula de cuartos.
+     * @param aleatorio El generador de números aleatorios.
+     * @param x0 La coordenada x de la esquina superior izquierda.
+     * @param y0 La coordenada y de la esquina superior izquierda.
+     * @param ancho El ancho del rectángulo.
+     * @param alto El alto del rectángulo.
+     */
+    @Override public void genera(Cuadricula cuadricula, Aleatorio aleatorio, int x0, int y0, int ancho, int alto) {
+        Generador.asignaPuntajes(cuadricula, aleatorio, x0, y0, ancho, alto);
+        for(int y = y0; y < y0 + alto; y++) {
+            for(int x = x0; x < x0 + ancho; x++) {
+                boolean norte = y > y0;
+                boolean este = x + 1 < x0 + ancho;
+                if(norte && este) {
+                    if(aleatorio.nextBoolean())
+                        este = false;
+                    else
+                        norte = false;
+                }
+                if(norte)
+                    cuadricula.abrePuerta(cuadricula.indice(x, y), Direccion.NORTE);
+                else if(este)
+                    cuadricula.abrePuerta(cuadricula.indice(x, y), Direccion.ESTE);
+            }
+        }
+    }
+}
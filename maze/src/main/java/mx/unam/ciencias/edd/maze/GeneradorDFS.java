@@ -0,0 +1,96 @@
+package mx.unam.ciencias.edd.maze;
+
+/**
+ * <p>Clase que genera un laberinto con el recorrido dfs-random (backtracking).</p>
+ * <p>Es el generador original del proyecto: produce pasillos largos con pocas
+ * bifurcaciones. Para una semilla genera exactamente el mismo laberinto que
+ * las versiones anteriores.</p>
+ */
+public class GeneradorDFS implements Generador {
+    // Las direcciones en el orden en que se revisan los cuartos adyacentes.
+    private static final Direccion[] CARDINALES = Direccion.obtenerCardinales();
+
+    /**
+     * Genera un laberinto perfecto en un rectángulo de la cuadrícula.
+     * @param cuadricula La cuadrícula de cuartos.
+     * @param aleatorio El generador de números aleatorios.
+     * @param x0 La coordenada x de la esquina superior izquierda.
+     * @param y0 La coordenada y de la esquina superior izquierda.
+     * @param ancho El ancho del rectángulo.
+     * @param alto El alto del rectángulo.
+     */
+    @Override public void genera(Cuadricula cuadricula, Aleatorio aleatorio, int x0, int y0, int ancho, int alto) {
+        int x = x0 + aleatorio.nextInt(ancho);
+        int y = y0 + aleatorio.nextInt(alto);
+        int puntaje = aleatorio.nextInt(15);
+        cuadricula.establecerPuntaje(cuadricula.indice(x, y), puntaje);
+        generaLaberinto(cuadricula, aleatorio, x0, y0, ancho, alto, x, y);
+    }
+
+    /*
+     * Genera el laberinto utilizando el recorrido dfs-random dentro del
+     * rectángulo dado, sin salir de él.
+     * Empieza a generar apartir del cuarto origen, que es el primero en abrir
+     * una puerta; así un cuarto sin puertas es un cuarto que no se ha visitado.
+     * La pila es un arreglo de enteros reservado una sola vez, con el índice
+     * de cada cuarto dentro del rectángulo, así que no se crean objetos por paso.
+     */
+    private void generaLaberinto(Cuadricula cuadricula, Aleatorio generador, int x0, int y0,
+                                 int ancho, int alto, int origenX, int origenY) {
+        // Cada cuarto entra a la pila a lo más una vez.
+        int[] pila = new int[ancho * alto];
+        int tope = 0;
+        pila[tope++] = (origenY - y0) * ancho + (origenX - x0);
+        while (tope > 0) {
+            int actual = pila[tope - 1];
+            int x = x0 + actual % ancho;
+            int y = y0 + actual / ancho;
+            int vacios = obtenerCuartosVacios(cuadricula, x0, y0, ancho, alto, x, y);
+            // Si no hay cuarto vacío se empieza a retroceder en la trayectoria.
+            if (vacios == 0) {
+                tope--;
+                continue;
+            }
+            // Elige uno de los cuartos vacíos de manera aleatoria.
+            int elegido = generador.nextInt(Integer.bitCount(vacios));
+            int d = 0;
+            while (elegido > 0 || (vacios & (1 << d)) == 0) {
+                if ((vacios & (1 << d)) != 0)
+                    elegido--;
+                d++;
+            }
+            Direccion direccion = CARDINALES[d];
+            // Crea la conexión de puertas con su cuarto adyacente.
+            cuadricula.establecerPuerta(cuadricula.indice(x, y), direccion);
+            // Genera un puntaje aleatoria del 1 al 15.
+            int puntaje = generador.nextInt(15) + 1;
+            // Inicizliza el cuarto adyacente y crea la conexión de puertas.
+            int adyacente = cuadricula.indice(x + direccion.deltaX, y + direccion.deltaY);
+            cuadricula.establecerPuntaje(adyacente, puntaje);
+            cuadricula.establecerPuerta(adyacente, direccion.opuesta());
+            // Continua el recorrido.
+            pila[tope++] = actual + direccion.deltaY * ancho + direccion.deltaX;
+        }
+    }
+
+    /*
+     * Regresa una máscara de cuatro bits con los cuartos vacíos adyacentes al
+     * cuarto de la coordenadas dadas x , y, dentro del rectángulo dado; el
+     * bit i corresponde a la i-ésima dirección cardinal.
+     */
+    private int obtenerCuartosVacios(Cuadricula cuadricula, int x0, int y0, int ancho, int alto,
+                                     int x, int y) {
+        int vacios = 0;
+        // Verifica los cuatro cuartos adyacentes posibles.
+        for (int d = 0; d < CARDINALES.length; d++) {
+            int adyacenteX = x + CARDINALES[d].deltaX;
+            int adyacenteY = y + CARDINALES[d].deltaY;
+            // Comprueba que las coordenadas esten dentro de los límites del laberinto.
+            // Se agrega la dirección si el cuarto no se ha visitado.
+            if(adyacenteX >= x0 && adyacenteX < x0 + ancho && adyacenteY >= y0 && adyacenteY < y0 + alto
+               && cuadricula.esVacio(cuadricula.indice(adyacenteX, adyacenteY)))
+                vacios |= 1 << d;
+        }
+        return vacios;
+    }
+}
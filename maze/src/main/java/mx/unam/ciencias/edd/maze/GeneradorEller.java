@@ -0,0 +1,209 @@
+package mx.unam.ciencias.edd.maze;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * <p>Clase que genera un laberinto con el algoritmo de Eller.</p>
+ * <p>El laberinto se construye renglón por renglón y solo se recuerda a qué
+ * conjunto pertenece cada cuarto del renglón actual: en cada renglón se unen
+ * al azar cuartos vecinos de conjuntos distintos y cada conjunto baja al
+ * menos una vez al siguiente renglón; en el último renglón se unen todos los
+ * conjuntos. La memoria es proporcional al ancho, así que con {@link
+ * #escribe} se pueden generar laberintos de miles de millones de cuartos,
+ * escribiendo cada renglón al canal en cuanto se termina.</p>
+ */
+public class GeneradorEller implements Generador {
+    // Tamaño de los bloques que se escriben en el canal.
+    private static final int BLOQUE_ESCRITURA = 1 << 20;
+    // Dato de un cuarto sin puertas y con puntaje cero.
+    private static final byte VACIO = 0b00001111;
+
+    /*
+     * Clase interna privada con los conjuntos del renglón actual.
+     * Las etiquetas de los cuartos que bajaron del renglón anterior son
+     * columnas entre 0 y ancho - 1; las de los cuartos nuevos son ancho más
+     * su columna, así que nunca se repiten.
+     */
+    private static class Renglones {
+        private final int ancho;
+        // Etiqueta del conjunto de cada cuarto del renglón.
+        private final int[] etiquetas;
+        // Unión-búsqueda sobre las columnas del renglón.
+        private final int[] padres;
+        // Primera columna con cada etiqueta, -1 si no hay.
+        private final int[] primeras;
+        // Cuartos vistos, columna elegida y si ya baja cada conjunto, por raíz.
+        private final int[] vistos;
+        private final int[] elegidos;
+        private final boolean[] bajan;
+        // Si cada cuarto del renglón anterior abrió una puerta al sur.
+        private final boolean[] abajo;
+
+        /* Crea los conjuntos para el primer renglón. */
+        private Renglones(int ancho) {
+            this.ancho = ancho;
+            etiquetas = new int[ancho];
+            padres = new int[ancho];
+            primeras = new int[2 * ancho];
+            vistos = new int[ancho];
+            elegidos = new int[ancho];
+            bajan = new boolean[ancho];
+            abajo = new boolean[ancho];
+            for(int x = 0; x < ancho; x++)
+                etiquetas[x] = ancho + x;
+        }
+
+        /* Regresa la raíz de una columna, comprimiendo la ruta a la mitad. */
+        private int raiz(int x) {
+            while(padres[x] != x) {
+                padres[x] = padres[padres[x]];
+                x = padres[x];
+            }
+            return x;
+        }
+
+        /* Genera el siguiente renglón en el arreglo dado. */
+        private void siguiente(Aleatorio aleatorio, boolean ultimo, byte[] renglon) {
+            for(int x = 0; x < ancho; x++) {
+                byte dato = (byte) (VACIO | (aleatorio.nextInt(15) + 1) << 4);
+                renglon[x] = abajo[x] ? Cuarto.agregaPuerta(dato, Direccion.NORTE) : dato;
+            }
+            // Las columnas con la misma etiqueta empiezan en el mismo conjunto.
+            for(int x = 0; x < ancho; x++) {
+                padres[x] = x;
+                primeras[etiquetas[x]] = -1;
+            }
+            for(int x = 0; x < ancho; x++) {
+                if(primeras[etiquetas[x]] == -1)
+                    primeras[etiquetas[x]] = x;
+                else
+                    padres[x] = primeras[etiquetas[x]];
+            }
+            // Une al azar vecinos de conjuntos distintos; en el último renglón, todos.
+            for(int x = 0; x + 1 < ancho; x++) {
+                int a = raiz(x);
+                int b = raiz(x + 1);
+                if(a != b && (ultimo || aleatorio.nextBoolean())) {
+                    padres[b] = a;
+                    renglon[x] = Cuarto.agregaPuerta(renglon[x], Direccion.ESTE);
+                    renglon[x + 1] = Cuarto.agregaPuerta(renglon[x + 1], Direccion.OESTE);
+                }
+            }
+            if(ultimo)
+                return;
+            // Cada conjunto baja al menos una vez; si nadie bajó al azar, baja un cuarto elegido al azar.
+            for(int x = 0; x < ancho; x++) {
+                vistos[x] = 0;
+                bajan[x] = false;
+            }
+            for(int x = 0; x < ancho; x++) {
+                int r = raiz(x);
+                if(aleatorio.nextInt(++vistos[r]) == 0)
+                    elegidos[r] = x;
+                abajo[x] = aleatorio.nextBoolean();
+                bajan[r] |= abajo[x];
+            }
+            for(int x = 0; x < ancho; x++)
+                if(padres[x] == x && !bajan[x])
+                    abajo[elegidos[x]] = true;
+            for(int x = 0; x < ancho; x++) {
+                if(abajo[x]) {
+                    renglon[x] = Cuarto.agregaPuerta(renglon[x], Direccion.SUR);
+                    etiquetas[x] = raiz(x);
+                } else
+                    etiquetas[x] = ancho + x;
+            }
+        }
+    }
+
+    /**
+     * Genera un laberinto perfecto en un rectángulo de la cuadrícula.
+     * @param cuadricula La cuadrícula de cuartos.
+     * @param aleatorio El generador de números aleatorios.
+     * @param x0 La coordenada x de la esquina superior izquierda.
+     * @param y0 La coordenada y de la esquina superior izquierda.
+     * @param ancho El ancho del rectángulo.
+     * @param alto El alto del rectángulo.
+     */
+    @Override public void genera(Cuadricula cuadricula, Aleatorio aleatorio, int x0, int y0, int ancho, int alto) {
+        Renglones renglones = new Renglones(ancho);
+        byte[] renglon = new byte[ancho];
+        byte[] datos = cuadricula.obtenerDatos();
+        for(int y = y0; y < y0 + alto; y++) {
+            renglones.siguiente(aleatorio, y + 1 == y0 + alto, renglon);
+            System.arraycopy(renglon, 0, datos, cuadricula.indice(x0, y), ancho);
+        }
+    }
+
+    /**
+     * Genera un laberinto completo, con sus dos cuartos salida, y lo escribe
+     * en un canal en el formato de archivo, renglón por renglón, sin
+     * guardarlo en memoria. Las salidas se eligen al azar en el borde antes
+     * de generar, como en {@link Laberinto} con un hilo, así que para una
+     * semilla el laberinto es el mismo que se genera en memoria.
+     * @param canal El canal donde se escribe.
+     * @param aleatorio El generador de números aleatorios.
+     * @param ancho El ancho del laberinto.
+     * @param alto El alto del laberinto.
+     * @throws IOException Si ocurrió un error al escribir.
+     */
+    public void escribe(WritableByteChannel canal, Aleatorio aleatorio, int ancho, int alto) throws IOException {
+        int[][] salidas = salidas(aleatorio, ancho, alto);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BLOQUE_ESCRITURA);
+        new Encabezado(ancho, alto).escribe(buffer);
+        Renglones renglones = new Renglones(ancho);
+        byte[] renglon = new byte[ancho];
+        for(int y = 0; y < alto; y++) {
+            renglones.siguiente(aleatorio, y + 1 == alto, renglon);
+            for(int[] salida : salidas)
+                if(salida[1] == y)
+                    renglon[salida[0]] = Cuarto.agregaPuerta(renglon[salida[0]], Direccion.values()[salida[2]]);
+            int escritos = 0;
+            while(escritos < ancho) {
+                int n = Math.min(buffer.remaining(), ancho - escritos);
+                buffer.put(renglon, escritos, n);
+                escritos += n;
+                if(!buffer.hasRemaining())
+                    LectorEscritor.vacia(canal, buffer);
+            }
+        }
+        LectorEscritor.vacia(canal, buffer);
+    }
+
+    /**
+     * Elige al azar el origen y el destino, dos cuartos distintos del borde,
+     * antes de generar los cuartos. Cada salida es su x, su y y el ordinal
+     * de la dirección de su puerta hacia fuera.
+     * @param aleatorio El generador de números aleatorios.
+     * @param ancho El ancho del laberinto.
+     * @param alto El alto del laberinto.
+     * @return El origen y el destino.
+     */
+    static int[][] salidas(Aleatorio aleatorio, int ancho, int alto) {
+        int[] origen = salidaAleatoria(aleatorio, ancho, alto);
+        int[] destino;
+        do {
+            destino = salidaAleatoria(aleatorio, ancho, alto);
+        } while(destino[0] == origen[0] && destino[1] == origen[1]);
+        return new int[][] {origen, destino};
+    }
+
+    /*
+     * Regresa un cuarto aleatorio del borde como x, y y el ordinal de la
+     * dirección de su puerta hacia fuera.
+     */
+    private static int[] salidaAleatoria(Aleatorio aleatorio, int ancho, int alto) {
+        switch(aleatorio.nextInt(4)) {
+            case 0:
+                return new int[] {aleatorio.nextInt(ancho), 0, Direccion.NORTE.ordinal()};
+            case 1:
+                return new int[] {aleatorio.nextInt(ancho), alto - 1, Direccion.SUR.ordinal()};
+            case 2:
+                return new int[] {ancho - 1, aleatorio.nextInt(alto), Direccion.ESTE.ordinal()};
+            default:
+                return new int[] {0, aleatorio.nextInt(alto), Direccion.OESTE.ordinal()};
+        }
+    }
+}
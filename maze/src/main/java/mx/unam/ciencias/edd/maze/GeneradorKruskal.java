@@ -0,0 +1,54 @@
+package mx.unam.ciencias.edd.maze;
+
+import mx.unam.ciencias.edd.ConjuntosDisjuntos;
+
+/**
+ * <p>Clase que genera un laberinto con el algoritmo de Kruskal aleatorio.</p>
+ * <p>Se revuelven todas las paredes interiores y se abre cada una que separe
+ * dos cuartos que todavía no están conectados, usando conjuntos disjuntos.
+ * Produce muchos callejones cortos. Usa un arreglo de enteros con dos
+ * entradas por cuarto para las paredes, más los conjuntos disjuntos.</p>
+ */
+public class GeneradorKruskal implements Generador {
+
+    /**
+     * Genera un laberinto perfecto en un rectángulo de la cuadrícula.
+     * @param cuadricula La cuadrícula de cuartos.
+     * @param aleatorio El generador de números aleatorios.
+     * @param x0 La coordenada x de la esquina superior izquierda.
+     * @param y0 La coordenada y de la esquina superior izquierda.
+     * @param ancho El ancho del rectángulo.
+     * @param alto El alto del rectángulo.
+     * @throws IllegalArgumentException Si el rectángulo tiene demasiados
+     *         cuartos para guardar sus paredes en un arreglo.
+     */
+    @Override public void genera(Cuadricula cuadricula, Aleatorio aleatorio, int x0, int y0, int ancho, int alto) {
+        Generador.asignaPuntajes(cuadricula, aleatorio, x0, y0, ancho, alto);
+        int n = ancho * alto;
+        if(2L * n > Integer.MAX_VALUE - 8)
+            throw new IllegalArgumentException("El laberinto es demasiado grande para este generador.");
+        // Cada pared es 2 * cuarto, más uno si separa al cuarto del de abajo.
+        int[] paredes = new int[2 * n];
+        int total = 0;
+        for(int cuarto = 0; cuarto < n; cuarto++) {
+            if(cuarto % ancho + 1 < ancho)
+                paredes[total++] = 2 * cuarto;
+            if(cuarto / ancho + 1 < alto)
+                paredes[total++] = 2 * cuarto + 1;
+        }
+        for(int k = total - 1; k > 0; k--) {
+            int l = aleatorio.nextInt(k + 1);
+            int t = paredes[k];
+            paredes[k] = paredes[l];
+            paredes[l] = t;
+        }
+        ConjuntosDisjuntos conjuntos = new ConjuntosDisjuntos(n);
+        for(int k = 0; k < total && conjuntos.getConjuntos() > 1; k++) {
+            int cuarto = paredes[k] / 2;
+            boolean abajo = paredes[k] % 2 == 1;
+            if(conjuntos.une(cuarto, abajo ? cuarto + ancho : cuarto + 1))
+                cuadricula.abrePuerta(cuadricula.indice(x0 + cuarto % ancho, y0 + cuarto / ancho),
+                                      abajo ? Direccion.SUR : Direccion.ESTE);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package mx.unam.ciencias.edd.maze;
+
+import java.util.Arrays;
+import mx.unam.ciencias.edd.MonticuloIndexado;
+
+/**
+ * <p>Clase que genera un laberinto con el algoritmo de Prim aleatorio.</p>
+ * <p>Cada pared recibe un peso aleatorio la primera vez que toca al árbol y
+ * se calcula el árbol generador de peso mínimo con un montículo indexado de
+ * la frontera: cada cuarto fuera del árbol guarda la pared más ligera que lo
+ * une al árbol. El árbol crece desde un cuarto aleatorio y produce muchas
+ * bifurcaciones cortas.</p>
+ */
+public class GeneradorPrim implements Generador {
+    // Las direcciones en el orden de su ordinal menos uno.
+    private static final Direccion[] CARDINALES = Direccion.obtenerCardinales();
+
+    /**
+     * Genera un laberinto perfecto en un rectángulo de la cuadrícula.
+     * @param cuadricula La cuadrícula de cuartos.
+     * @param aleatorio El generador de números aleatorios.
+     * @param x0 La coordenada x de la esquina superior izquierda.
+     * @param y0 La coordenada y de la esquina superior izquierda.
+     * @param ancho El ancho del rectángulo.
+     * @param alto El alto del rectángulo.
+     */
+    @Override public void genera(Cuadricula cuadricula, Aleatorio aleatorio, int x0, int y0, int ancho, int alto) {
+        Generador.asignaPuntajes(cuadricula, aleatorio, x0, y0, ancho, alto);
+        int n = ancho * alto;
+        long[] pesos = new long[n];
+        // La dirección de la pared más ligera hacia el árbol, como índice en CARDINALES.
+        byte[] enlaces = new byte[n];
+        boolean[] enArbol = new boolean[n];
+        Arrays.fill(pesos, Long.MAX_VALUE);
+        MonticuloIndexado frontera = new MonticuloIndexado(pesos);
+        int inicio = aleatorio.nextInt(n);
+        enArbol[inicio] = true;
+        agregaFrontera(aleatorio, frontera, pesos, enlaces, enArbol, ancho, alto, inicio);
+        while(!frontera.esVacia()) {
+            int cuarto = frontera.elimina();
+            enArbol[cuarto] = true;
+            cuadricula.abrePuerta(cuadricula.indice(x0 + cuarto % ancho, y0 + cuarto / ancho),
+                                  CARDINALES[enlaces[cuarto]]);
+            agregaFrontera(aleatorio, frontera, pesos, enlaces, enArbol, ancho, alto, cuarto);
+        }
+    }
+
+    /*
+     * Da un peso aleatorio a cada pared entre un cuarto recién agregado al
+     * árbol y sus vecinos fuera del árbol, actualizando la frontera.
+     */
+    private void agregaFrontera(Aleatorio aleatorio, MonticuloIndexado frontera, long[] pesos,
+                                byte[] enlaces, boolean[] enArbol, int ancho, int alto, int cuarto) {
+        int x = cuarto % ancho;
+        int y = cuarto / ancho;
+        for(int d = 0; d < CARDINALES.length; d++) {
+            Direccion direccion = CARDINALES[d];
+            int vecinoX = x + direccion.deltaX;
+            int vecinoY = y + direccion.deltaY;
+            if(vecinoX < 0 || vecinoX >= ancho || vecinoY < 0 || vecinoY >= alto)
+                continue;
+            int vecino = vecinoY * ancho + vecinoX;
+            if(enArbol[vecino])
+                continue;
+            long peso = aleatorio.nextInt(Integer.MAX_VALUE);
+            if(peso < pesos[vecino]) {
+                pesos[vecino] = peso;
+                enlaces[vecino] = (byte) indice(direccion.opuesta());
+                frontera.reordena(vecino);
+            }
+        }
+    }
+
+    /*
+     * Regresa el índice de una dirección en CARDINALES.
+     */
+    private static int indice(Direccion direccion) {
+        for(int d = 0; d < CARDINALES.length; d++)
+            if(CARDINALES[d] == direccion)
+                return d;
+        return -1;
+    }
+}
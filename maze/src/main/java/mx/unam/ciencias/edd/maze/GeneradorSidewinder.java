@@ -0,0 +1,38 @@
+package mx.unam.ciencias.edd.maze;
+
+/**
+ * <p>Clase que genera un laberinto con el algoritmo sidewinder.</p>
+ * <p>El primer renglón es un solo pasillo. En los demás se avanza al este
+ * formando tramos y, al cerrar cada tramo, se abre una puerta al norte desde
+ * uno de sus cuartos al azar. Recorre los cuartos una sola vez, renglón por
+ * renglón, sin memoria adicional; el laberinto tiene un pasillo largo en el
+ * borde norte y sesgo vertical.</p>
+ */
+public class GeneradorSidewinder implements Generador {
+
+    /**
+     * Genera un laberinto perfecto en un rectángulo de la cuadrícula.
+     * @param cuadricula La cuadrícula de cuartos.
+     * @param aleatorio El generador de números aleatorios.
+     * @param x0 La coordenada x de la esquina superior izquierda.
+     * @param y0 La coordenada y de la esquina superior izquierda.
+     * @param ancho El ancho del rectángulo.
+     * @param alto El alto del rectángulo.
+     */
+    @Override public void genera(Cuadricula cuadricula, Aleatorio aleatorio, int x0, int y0, int ancho, int alto) {
+        Generador.asignaPuntajes(cuadricula, aleatorio, x0, y0, ancho, alto);
+        for(int x = x0; x + 1 < x0 + ancho; x++)
+            cuadricula.abrePuerta(cuadricula.indice(x, y0), Direccion.ESTE);
+        for(int y = y0 + 1; y < y0 + alto; y++) {
+            int inicioTramo = x0;
+            for(int x = x0; x < x0 + ancho; x++) {
+                if(x + 1 == x0 + ancho || aleatorio.nextBoolean()) {
+                    int norte = inicioTramo + aleatorio.nextInt(x - inicioTramo + 1);
+                    cuadricula.abrePuerta(cuadricula.indice(norte, y), Direccion.NORTE);
+                    inicioTramo = x + 1;
+                } else
+                    cuadricula.abrePuerta(cuadricula.indice(x, y), Direccion.ESTE);
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package mx.unam.ciencias.edd.maze;
+
+/**
+ * <p>Clase que genera un laberinto con el algoritmo de Wilson.</p>
+ * <p>Desde cada cuarto fuera del árbol se hace una caminata aleatoria hasta
+ * tocar el árbol, recordando en cada cuarto la última dirección por la que se
+ * salió; al volver a recorrerla siguiendo esas direcciones se obtiene la
+ * caminata sin ciclos, que se agrega al árbol. Genera un árbol generador
+ * uniforme entre todos los posibles (igual que Aldous-Broder, pero mucho más
+ * rápido), sin el sesgo de los demás generadores; las primeras caminatas son
+ * largas. Usa un byte y un booleano por cuarto.</p>
+ */
+public class GeneradorWilson implements Generador {
+    // Las direcciones en el orden en que se guardan en las caminatas.
+    private static final Direccion[] CARDINALES = Direccion.obtenerCardinales();
+
+    /**
+     * Genera un laberinto perfecto en un rectángulo de la cuadrícula.
+     * @param cuadricula La cuadrícula de cuartos.
+     * @param aleatorio El generador de números aleatorios.
+     * @param x0 La coordenada x de la esquina superior izquierda.
+     * @param y0 La coordenada y de la esquina superior izquierda.
+     * @param ancho El ancho del rectángulo.
+     * @param alto El alto del rectángulo.
+     */
+    @Override public void genera(Cuadricula cuadricula, Aleatorio aleatorio, int x0, int y0, int ancho, int alto) {
+        Generador.asignaPuntajes(cuadricula, aleatorio, x0, y0, ancho, alto);
+        int n = ancho * alto;
+        boolean[] enArbol = new boolean[n];
+        // La última dirección por la que la caminata salió de cada cuarto.
+        byte[] salidas = new byte[n];
+        enArbol[aleatorio.nextInt(n)] = true;
+        for(int inicio = 0; inicio < n; inicio++) {
+            int actual = inicio;
+            while(!enArbol[actual]) {
+                int d = direccionAleatoria(aleatorio, actual % ancho, actual / ancho, ancho, alto);
+                salidas[actual] = (byte) d;
+                actual += CARDINALES[d].deltaY * ancho + CARDINALES[d].deltaX;
+            }
+            actual = inicio;
+            while(!enArbol[actual]) {
+                Direccion direccion = CARDINALES[salidas[actual]];
+                cuadricula.abrePuerta(cuadricula.indice(x0 + actual % ancho, y0 + actual / ancho), direccion);
+                enArbol[actual] = true;
+                actual += direccion.deltaY * ancho + direccion.deltaX;
+            }
+        }
+    }
+
+    /*
+     * Regresa una dirección aleatoria, como índice en CARDINALES, que no
+     * sale del rectángulo.
+     */
+    private int direccionAleatoria(Aleatorio aleatorio, int x, int y, int ancho, int alto) {
+        while(true) {
+            int d = aleatorio.nextInt(CARDINALES.length);
+            int vecinoX = x + CARDINALES[d].deltaX;
+            int vecinoY = y + CARDINALES[d].deltaY;
+            if(vecinoX >= 0 && vecinoX < ancho && vecinoY >= 0 && vecinoY < alto)
+                return d;
+        }
+    }
+}
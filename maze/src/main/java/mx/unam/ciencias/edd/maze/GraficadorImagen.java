@@ -0,0 +1,458 @@
+package mx.unam.ciencias.edd.maze;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntBinaryOperator;
+import java.util.zip.Adler32;
+import java.util.zip.Deflater;
+
+/**
+ * <p>Clase que dibuja un laberinto junto con su solución como una imagen de
+ * pixeles en formato pbm, pgm o png, para laberintos donde el svg ya no es
+ * práctico.</p>
+ * <p>Cada cuarto mide {@link #ESCALA} pixeles por lado contando una de sus
+ * paredes; las paredes son de un pixel y la solución es una línea de un pixel
+ * que pasa por el centro de los cuartos. Usa los mismos colores que {@link
+ * GraficadorLaberinto}; el formato pbm solo tiene blanco y negro, así que
+ * solo lleva las paredes, y el pgm usa tonos de gris.</p>
+ * <p>La imagen se dibuja y se codifica por franjas de renglones, cada una en
+ * un arreglo de pixeles propio, así que la memoria no depende del alto del
+ * laberinto y las franjas se pueden codificar en varios hilos. En png cada
+ * franja se comprime por separado y las franjas comprimidas se concatenan en
+ * un solo flujo zlib.</p>
+ */
+public class GraficadorImagen {
+    /** Pixeles por lado de cada cuarto, contando una de sus paredes. */
+    public static final int ESCALA = 4;
+    // El tono de gris de cada color de la paleta de CodificadorPNG en pgm.
+    private static final byte[] GRISES = {(byte) 255, 0, (byte) 128, 64, (byte) 192};
+    // El encabezado zlib para compresión deflate con ventana de 32 KiB.
+    private static final byte[] ENCABEZADO_ZLIB = {0x78, (byte) 0x9C};
+    // Pixeles aproximados de cada franja.
+    private static final int PIXELES_POR_FRANJA = 1 << 22;
+    // Franjas en proceso por cada hilo.
+    private static final int PENDIENTES_POR_HILO = 2;
+    /** Bits de las direcciones de un cuarto de la solución, un bit por ordinal. */
+    static final int BITS_CONEXIONES = 5;
+    // Tamaño del buffer de salida.
+    private static final int BUFFER = 1 << 16;
+    // Regresa el dato del cuarto con las coordenadas dadas.
+    private final IntBinaryOperator cuartos;
+    private final int ANCHO;
+    private final int ALTO;
+    // Los cuartos de la solución ordenados por índice: cada uno es el índice
+    // desplazado BITS_CONEXIONES bits, con las direcciones en las que se
+    // conecta con la solución en los bits libres.
+    private final long[] solucion;
+    private final long origen;
+    private final long destino;
+    // Las dimensiones de la imagen en pixeles.
+    private final int ancho;
+    private final int alto;
+
+    /**
+     * Constructor que recibe un laberinto en memoria, que se dibuja con su solución.
+     * @param laberinto El laberinto.
+     * @throws IllegalArgumentException Si el laberinto es nulo o demasiado
+     *         ancho para dibujarlo.
+     */
+    public GraficadorImagen(Laberinto laberinto) throws IllegalArgumentException {
+        this(cuartos(laberinto), laberinto.obtenerAncho(), laberinto.obtenerAlto(),
+             laberinto.obtenerTrayectoria(), laberinto.obtenerOrigen(), laberinto.obtenerDestino());
+    }
+
+    /**
+     * Constructor que recibe un laberinto mapeado y validado, que se dibuja
+     * con la solución dada.
+     * @param laberinto El laberinto mapeado.
+     * @param solucion La solución del laberinto.
+     * @throws IllegalArgumentException Si el laberinto es demasiado ancho para dibujarlo.
+     */
+    public GraficadorImagen(LaberintoMapeado laberinto, Trayectoria solucion) throws IllegalArgumentException {
+        this(laberinto::obtenerDato, laberinto.obtenerAncho(), laberinto.obtenerAlto(),
+             solucion, laberinto.obtenerOrigen(), laberinto.obtenerDestino());
+    }
+
+    /*
+     * Constructor que recibe de dónde leer los cuartos, las dimensiones del
+     * laberinto, su solución y sus cuartos salida.
+     */
+    private GraficadorImagen(IntBinaryOperator cuartos, int anchoLaberinto, int altoLaberinto,
+                             Trayectoria trayectoria, long origen, long destino) {
+        // Un renglón de cuartos tiene que caber en un arreglo.
+        if((long) anchoLaberinto * ESCALA + 1 > (Integer.MAX_VALUE - 8) / (ESCALA + 1))
+            throw new IllegalArgumentException("El laberinto es demasiado ancho para dibujarlo como imagen.");
+        if((long) altoLaberinto * ESCALA + 1 > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("El laberinto es demasiado alto para dibujarlo como imagen.");
+        if(trayectoria.obtenerLongitud() >= Integer.MAX_VALUE - 8)
+            throw new IllegalArgumentException("La solución es demasiado larga para dibujarla como imagen.");
+        this.cuartos = cuartos;
+        ANCHO = anchoLaberinto;
+        ALTO = altoLaberinto;
+        this.origen = origen;
+        this.destino = destino;
+        ancho = ANCHO * ESCALA + 1;
+        alto = ALTO * ESCALA + 1;
+        solucion = conexiones(trayectoria, ANCHO);
+    }
+
+    /*
+     * Regresa de dónde leer los cuartos de un laberinto en memoria.
+     */
+    private static IntBinaryOperator cuartos(Laberinto laberinto) {
+        if(laberinto == null)
+            throw new IllegalArgumentException("Proporciona una laberinto no nulo.");
+        Cuadricula cuadricula = laberinto.obtenerCuadricula();
+        return (x, y) -> cuadricula.obtenerDato(cuadricula.indice(x, y));
+    }
+
+    /**
+     * Recorre una trayectoria y regresa sus cuartos ordenados por índice,
+     * cada uno con las direcciones en las que se conecta con los cuartos
+     * anterior y siguiente en los {@link #BITS_CONEXIONES} bits menos
+     * significativos. Así una parte de la imagen encuentra los suyos con una
+     * búsqueda binaria.
+     * @param trayectoria La trayectoria.
+     * @param ancho El ancho del laberinto.
+     * @return Los cuartos de la trayectoria con sus conexiones.
+     */
+    static long[] conexiones(Trayectoria trayectoria, int ancho) {
+        long[] conexiones = new long[(int) trayectoria.obtenerLongitud() + 1];
+        long x = trayectoria.obtenerInicioX();
+        long y = trayectoria.obtenerInicioY();
+        int anterior = 0;
+        for(int i = 0; i < conexiones.length; i++) {
+            int mascara = anterior;
+            long indice = y * ancho + x;
+            if(i + 1 < conexiones.length) {
+                Direccion direccion = trayectoria.obtenerPaso(i);
+                mascara |= 1 << direccion.ordinal();
+                anterior = 1 << direccion.opuesta().ordinal();
+                x += direccion.deltaX;
+                y += direccion.deltaY;
+            }
+            conexiones[i] = indice << BITS_CONEXIONES | mascara;
+        }
+        Arrays.sort(conexiones);
+        return conexiones;
+    }
+
+    /**
+     * Escribe la imagen del laberinto en el formato dado. Vacía la salida
+     * pero no la cierra.
+     * @param salida Donde se escribe la imagen.
+     * @param formato El formato de la imagen: {@link FormatoSalida#PBM},
+     *        {@link FormatoSalida#PGM} o {@link FormatoSalida#PNG}.
+     * @param hilos El número de hilos con los que se dibujan las franjas.
+     * @throws IOException Si ocurrió un error al escribir.
+     * @throws IllegalArgumentException Si el formato no es de imagen o el
+     *         número de hilos es inválido.
+     * @throws IllegalStateException Si se interrumpió el dibujo.
+     */
+    public void dibuja(OutputStream salida, FormatoSalida formato, int hilos) throws IOException {
+        if(!formato.esImagen())
+            throw new IllegalArgumentException("El formato no es de imagen: " + formato.obtenerNombre());
+        if(hilos < 1)
+            throw new IllegalArgumentException("El número de hilos debe de ser al menos 1.");
+        DataOutputStream datos = new DataOutputStream(new BufferedOutputStream(salida, BUFFER));
+        escribeEncabezado(datos, formato);
+        // Cuartos por franja; la última franja tiene además el borde del sur.
+        int renglones = (int) Math.max(1, PIXELES_POR_FRANJA / ((long) ancho * ESCALA));
+        int franjas = (ALTO + renglones - 1) / renglones;
+        ExecutorService conjunto = hilos > 1 ? Executors.newFixedThreadPool(hilos) : null;
+        ArrayDeque<Future<Franja>> pendientes = new ArrayDeque<>();
+        long adler = 1;
+        try {
+            int siguiente = 0;
+            for(int i = 0; i < franjas; i++) {
+                Franja franja;
+                if(conjunto == null) {
+                    franja = codifica(i * renglones, Math.min(ALTO, (i + 1) * renglones), formato);
+                } else {
+                    // Se mantiene un número acotado de franjas en proceso.
+                    while(siguiente < franjas && siguiente - i < hilos * PENDIENTES_POR_HILO) {
+                        int y0 = siguiente * renglones;
+                        int y1 = Math.min(ALTO, y0 + renglones);
+                        pendientes.add(conjunto.submit(() -> codifica(y0, y1, formato)));
+                        siguiente++;
+                    }
+                    franja = pendientes.remove().get();
+                }
+                if(formato == FormatoSalida.PNG) {
+                    CodificadorPNG.escribeBloque(datos, "IDAT", franja.datos);
+                    adler = combinaAdler(adler, franja.adler, franja.longitud);
+                } else {
+                    datos.write(franja.datos);
+                }
+            }
+        } catch(InterruptedException e) {
+            throw new IllegalStateException("Se interrumpió el dibujo de la imagen.", e);
+        } catch(ExecutionException e) {
+            throw new IllegalStateException("No se pudo dibujar la imagen.", e.getCause());
+        } finally {
+            if(conjunto != null)
+                conjunto.shutdownNow();
+        }
+        if(formato == FormatoSalida.PNG) {
+            CodificadorPNG.escribeBloque(datos, "IDAT", new byte[] {
+                (byte) (adler >>> 24), (byte) (adler >>> 16), (byte) (adler >>> 8), (byte) adler
+            });
+            CodificadorPNG.escribeFin(datos);
+        }
+        datos.flush();
+    }
+
+    /*
+     * Escribe lo que va antes de los pixeles: el encabezado de pbm o pgm, o
+     * la firma, el encabezado, la paleta y el inicio del flujo zlib de png.
+     */
+    private void escribeEncabezado(DataOutputStream datos, FormatoSalida formato) throws IOException {
+        switch (formato) {
+            case PBM:
+                datos.write(String.format("P4\n%d %d\n", ancho, alto).getBytes(StandardCharsets.US_ASCII));
+                break;
+            case PGM:
+                datos.write(String.format("P5\n%d %d\n255\n", ancho, alto).getBytes(StandardCharsets.US_ASCII));
+                break;
+            default:
+                CodificadorPNG.escribeInicio(datos, ancho, alto);
+                CodificadorPNG.escribeBloque(datos, "IDAT", ENCABEZADO_ZLIB);
+                break;
+        }
+    }
+
+    /*
+     * Dibuja los cuartos de los renglones y0 a y1 y codifica sus pixeles en
+     * el formato dado.
+     */
+    private Franja codifica(int y0, int y1, FormatoSalida formato) {
+        int p0 = y0 * ESCALA;
+        int p1 = y1 * ESCALA + (y1 == ALTO ? 1 : 0);
+        byte[] pixeles = dibujaFranja(y0, y1, p0, p1);
+        int filas = p1 - p0;
+        switch (formato) {
+            case PBM:
+                return new Franja(empacaBits(pixeles, filas), 0, 0);
+            case PGM:
+                for(int i = 0; i < pixeles.length; i++)
+                    pixeles[i] = GRISES[pixeles[i]];
+                return new Franja(pixeles, 0, 0);
+            default:
+                byte[] crudos = CodificadorPNG.empaca(pixeles, ancho, filas);
+                Adler32 adler = new Adler32();
+                adler.update(crudos, 0, crudos.length);
+                return new Franja(comprime(crudos, y1 == ALTO), adler.getValue(), crudos.length);
+        }
+    }
+
+    /*
+     * Dibuja las paredes, la solución y los cuartos salida de los renglones
+     * y0 a y1 en un arreglo con los renglones de pixeles p0 a p1.
+     */
+    private byte[] dibujaFranja(int y0, int y1, int p0, int p1) {
+        byte[] pixeles = new byte[(p1 - p0) * ancho];
+        // Las paredes verticales del renglón anterior llegan a la primera fila.
+        for(int y = Math.max(y0 - 1, 0); y < y1; y++) {
+            int arriba = y * ESCALA;
+            for(int x = 0; x < ANCHO; x++) {
+                byte dato = (byte) cuartos.applyAsInt(x, y);
+                int izquierda = x * ESCALA;
+                if(!Cuarto.tienePuerta(dato, Direccion.NORTE))
+                    horizontal(pixeles, p0, p1, arriba, izquierda);
+                if(y == ALTO - 1 && !Cuarto.tienePuerta(dato, Direccion.SUR))
+                    horizontal(pixeles, p0, p1, arriba + ESCALA, izquierda);
+                if(!Cuarto.tienePuerta(dato, Direccion.OESTE))
+                    vertical(pixeles, p0, p1, arriba, izquierda);
+                if(x == ANCHO - 1 && !Cuarto.tienePuerta(dato, Direccion.ESTE))
+                    vertical(pixeles, p0, p1, arriba, izquierda + ESCALA);
+            }
+        }
+        int medio = ESCALA / 2;
+        int inicio = buscaCuarto(solucion, (long) y0 * ANCHO);
+        int fin = buscaCuarto(solucion, (long) y1 * ANCHO);
+        for(int i = inicio; i < fin; i++) {
+            long indice = solucion[i] >>> BITS_CONEXIONES;
+            int mascara = (int) (solucion[i] & ((1 << BITS_CONEXIONES) - 1));
+            int x = (int) (indice % ANCHO) * ESCALA;
+            int fila = ((int) (indice / ANCHO) * ESCALA - p0) * ancho;
+            // Cada cuarto dibuja las mitades de los pasos que llegan y salen de él.
+            pixeles[fila + medio * ancho + x + medio] = CodificadorPNG.SOLUCION;
+            for(int k = 0; k <= medio; k++) {
+                if((mascara & 1 << Direccion.NORTE.ordinal()) != 0)
+                    pixeles[fila + k * ancho + x + medio] = CodificadorPNG.SOLUCION;
+                // La frontera del sur la dibuja el cuarto de abajo.
+                if(k < medio && (mascara & 1 << Direccion.SUR.ordinal()) != 0)
+                    pixeles[fila + (medio + k) * ancho + x + medio] = CodificadorPNG.SOLUCION;
+                if((mascara & 1 << Direccion.OESTE.ordinal()) != 0)
+                    pixeles[fila + medio * ancho + x + k] = CodificadorPNG.SOLUCION;
+                if((mascara & 1 << Direccion.ESTE.ordinal()) != 0)
+                    pixeles[fila + medio * ancho + x + medio + k] = CodificadorPNG.SOLUCION;
+            }
+        }
+        dibujaSalida(pixeles, y0, y1, p0, origen, CodificadorPNG.ORIGEN);
+        dibujaSalida(pixeles, y0, y1, p0, destino, CodificadorPNG.DESTINO);
+        return pixeles;
+    }
+
+    /*
+     * Dibuja la pared horizontal que empieza en el pixel dado, con sus dos
+     * esquinas, si su fila está en la franja.
+     */
+    private void horizontal(byte[] pixeles, int p0, int p1, int fila, int columna) {
+        if(fila >= p0 && fila < p1) {
+            int inicio = (fila - p0) * ancho + columna;
+            Arrays.fill(pixeles, inicio, inicio + ESCALA + 1, CodificadorPNG.PARED);
+        }
+    }
+
+    /*
+     * Dibuja la pared vertical que empieza en el pixel dado, con sus dos
+     * esquinas, recortada a las filas de la franja.
+     */
+    private void vertical(byte[] pixeles, int p0, int p1, int fila, int columna) {
+        for(int f = Math.max(fila, p0); f <= fila + ESCALA && f < p1; f++)
+            pixeles[(f - p0) * ancho + columna] = CodificadorPNG.PARED;
+    }
+
+    /*
+     * Rellena el interior de un cuarto salida si está en los renglones de la franja.
+     */
+    private void dibujaSalida(byte[] pixeles, int y0, int y1, int p0, long salida, byte color) {
+        int y = (int) (salida / ANCHO);
+        if(y < y0 || y >= y1)
+            return;
+        int x = (int) (salida % ANCHO) * ESCALA;
+        for(int f = 1; f < ESCALA; f++) {
+            int inicio = (y * ESCALA + f - p0) * ancho + x;
+            Arrays.fill(pixeles, inicio + 1, inicio + ESCALA, color);
+        }
+    }
+
+    /**
+     * Regresa la posición del primer cuarto con índice mayor o igual al dado
+     * en los cuartos de una trayectoria con sus conexiones.
+     * @param solucion Los cuartos con sus conexiones, ordenados por índice.
+     * @param indice El índice del cuarto.
+     * @return La posición del primer cuarto con índice mayor o igual.
+     */
+    static int buscaCuarto(long[] solucion, long indice) {
+        int inicio = 0;
+        int fin = solucion.length;
+        while(inicio < fin) {
+            int medio = (inicio + fin) >>> 1;
+            if(solucion[medio] >>> BITS_CONEXIONES < indice)
+                inicio = medio + 1;
+            else
+                fin = medio;
+        }
+        return inicio;
+    }
+
+    /*
+     * Empaca las filas de pixeles a un bit por pixel, con las paredes en uno,
+     * y cada fila completa a bytes enteros, como en pbm.
+     */
+    private byte[] empacaBits(byte[] pixeles, int filas) {
+        int bytesFila = (ancho + 7) / 8;
+        byte[] empacados = new byte[filas * bytesFila];
+        for(int f = 0; f < filas; f++) {
+            for(int c = 0; c < ancho; c++) {
+                if(pixeles[f * ancho + c] == CodificadorPNG.PARED)
+                    empacados[f * bytesFila + (c >>> 3)] |= 0x80 >>> (c & 7);
+            }
+        }
+        return empacados;
+    }
+
+    /*
+     * Comprime los bytes de una franja con deflate sin encabezado, con la
+     * compresión más rápida porque el filtro de {@link CodificadorPNG#empaca}
+     * ya deja casi todo en cero. Las
+     * franjas que no son la última terminan en un byte completo y sin marcar
+     * el final del flujo, así que se pueden concatenar.
+     */
+    private static byte[] comprime(byte[] crudos, boolean ultima) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED, true);
+        try {
+            deflater.setInput(crudos);
+            if(ultima)
+                deflater.finish();
+            byte[] buffer = new byte[Math.max(64, crudos.length / 8)];
+            int longitud = 0;
+            while(true) {
+                longitud += deflater.deflate(buffer, longitud, buffer.length - longitud,
+                                             ultima ? Deflater.NO_FLUSH : Deflater.SYNC_FLUSH);
+                // Termina cuando el compresor ya no llenó el buffer.
+                if(ultima ? deflater.finished() : longitud < buffer.length)
+                    return Arrays.copyOf(buffer, longitud);
+                if(longitud == buffer.length)
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            }
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /*
+     * Combina la suma Adler-32 de dos partes de un flujo, dada la longitud
+     * de la segunda, como adler32_combine de zlib.
+     */
+    private static long combinaAdler(long adler1, long adler2, long longitud2) {
+        final long BASE = 65521;
+        long resto = longitud2 % BASE;
+        long suma1 = adler1 & 0xFFFF;
+        long suma2 = resto * suma1 % BASE;
+        suma1 += (adler2 & 0xFFFF) + BASE - 1;
+        suma2 += ((adler1 >>> 16) & 0xFFFF) + ((adler2 >>> 16) & 0xFFFF) + BASE - resto;
+        if(suma1 >= BASE)
+            suma1 -= BASE;
+        if(suma1 >= BASE)
+            suma1 -= BASE;
+        if(suma2 >= BASE << 1)
+            suma2 -= BASE << 1;
+        if(suma2 >= BASE)
+            suma2 -= BASE;
+        return suma1 | suma2 << 16;
+    }
+
+    /**
+     * Obtiene el ancho de la imagen.
+     * @return el ancho de la imagen en pixeles.
+     */
+    public int obtenerAncho() {
+        return ancho;
+    }
+
+    /**
+     * Obtiene el alto de la imagen.
+     * @return el alto de la imagen en pixeles.
+     */
+    public int obtenerAlto() {
+        return alto;
+    }
+
+    /*
+     * Una franja codificada y, en png, la suma Adler-32 y la longitud de sus
+     * bytes antes de comprimirlos.
+     */
+    private static class Franja {
+        private final byte[] datos;
+        private final long adler;
+        private final long longitud;
+
+        private Franja(byte[] datos, long adler, long longitud) {
+            this.datos = datos;
+            this.adler = adler;
+            this.longitud = longitud;
+        }
+    }
+}
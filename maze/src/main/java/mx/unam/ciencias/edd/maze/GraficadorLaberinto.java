@@ -1,8 +1,7 @@
 package mx.unam.ciencias.edd.maze;
 
-import mx.unam.ciencias.edd.Conjunto;
-import mx.unam.ciencias.edd.Lista;
-import mx.unam.ciencias.edd.IteradorLista;
+import java.io.IOException;
+import java.io.Writer;
 
 /**
  * <p>Clase que proporciona una representación gráfica de un laberinto junto con su solución.</p>
@@ -11,172 +10,181 @@ import mx.unam.ciencias.edd.IteradorLista;
  * - El cuarto de destino contiene un circulo de color rojo.
  * - EL camino de la solución es verde.
  * - Las paredes de los cuartos son negras.</p>
+ * <p>Las etiquetas se escriben conforme se generan, renglón por renglón, así
+ * que la memoria no depende del tamaño del dibujo. Las paredes seguidas se
+ * unen en una sola línea con {@link ParedesSVG}.</p>
+ * <p>En modo compacto todas las paredes son un solo trazo y la solución otro,
+ * cada uno en un grupo con su estilo, en lugar de una etiqueta con estilo por
+ * línea.</p>
  * <p>Por la implementación de la clase laberinto podemos asegurar que el propocionado siempre tiene solución</p>
  */
 public class GraficadorLaberinto {
-    // Guarda las figuras svg generadas, evita repeticiones.
-    private Conjunto<String> dibujo;
     private Laberinto laberinto;
-    private Lista<Cuarto> solucion;
+    private Cuadricula cuadricula;
+    // Índices de los cuartos de la solución.
+    private int[] solucion;
     // Permite crear las etiquetas svg.
     private FigurasSVG figuras;
     private int ancho;
     private int alto;
+    // Si las paredes y la solución se dibujan como trazos.
+    private final boolean compacto;
+
     /**
      * Constructor que inicializa un GraficadorLaberinto con un laberinto dado.
      * @param laberinto El laberinto que se va a representar gráficamente.
      * @throws IllegalArgumentException Si el laberinto es nulo.
      */
     public GraficadorLaberinto(Laberinto laberinto) throws IllegalArgumentException {
+        this(laberinto, false);
+    }
+
+    /**
+     * Constructor que inicializa un GraficadorLaberinto con un laberinto dado,
+     * que dibuja las paredes y la solución como líneas o como trazos.
+     * @param laberinto El laberinto que se va a representar gráficamente.
+     * @param compacto Si las paredes y la solución se dibujan como trazos.
+     * @throws IllegalArgumentException Si el laberinto es nulo.
+     */
+    public GraficadorLaberinto(Laberinto laberinto, boolean compacto) throws IllegalArgumentException {
         if(laberinto == null)
             throw new IllegalArgumentException("Proporciona una laberinto no nulo.");
         this.laberinto = laberinto;
-        dibujo = new Conjunto<>();
+        cuadricula = laberinto.obtenerCuadricula();
         figuras = new FigurasSVG();
         ancho = laberinto.obtenerAncho() * 20 + 20;
         alto = laberinto.obtenerAlto() * 20 + 20;
         solucion = laberinto.obtenerSolucion();
+        this.compacto = compacto;
     }
 
     /**
-     * Regresa una cadena con una serie de etiquetas svg, que representan
-     * Al laberinto junto con su solución.
-     * @return El dibujo del laberinto.
+     * Escribe el archivo svg del laberinto junto con su solución. No vacía
+     * ni cierra el escritor.
+     * @param escritor Donde se escribe el dibujo.
+     * @throws IOException Si ocurrió un error al escribir.
      */
-    public String dibuja() {
-        // Permite obtener información acerca de las coordenadas de cada cuarto.
-        Cuarto[][] cuartos = laberinto.obtenerCuartos();
+    public void dibuja(Writer escritor) throws IOException {
+        escritor.write(FigurasSVG.inicioSVG(ancho, alto));
+        figuras.establecerColor("black");
+        TrazoSVG trazo = compacto ? iniciaTrazo(escritor) : null;
+        ParedesSVG paredes = new ParedesSVG(escritor, figuras, trazo, laberinto.obtenerAncho(), laberinto.obtenerAlto());
+        // Los cuartos de cada renglón están seguidos en los datos de la cuadrícula.
+        for (int y = 0; y < laberinto.obtenerAlto(); y++)
+            paredes.dibujaRenglon(cuadricula.obtenerDatos(), cuadricula.indice(0, y), y);
+        if (compacto)
+            terminaTrazo(escritor, trazo);
         // Las coordenadas de los cuartos de origen y de destino.
-        int origenX = 0, destinoX = 0;
-        int origenY = 0, destinoY = 0;
-        for (int y = 0; y < laberinto.obtenerAlto(); y++) {
-            for (int x = 0; x < laberinto.obtenerAncho(); x++) { 
-                Cuarto cuarto = cuartos[y][x];
-                if(cuarto == laberinto.obtenerOrigen()) {
-                    origenX = x;
-                    origenY = y;
-                }
-                if(cuarto == laberinto.obtenerDestino()) {
-                    destinoX = x;
-                    destinoY = y;
-                }
-                dibujaCuarto(cuarto, x, y);
-            }
-        }
+        int origenX = cuadricula.obtenerX(laberinto.obtenerOrigen());
+        int origenY = cuadricula.obtenerY(laberinto.obtenerOrigen());
+        int destinoX = cuadricula.obtenerX(laberinto.obtenerDestino());
+        int destinoY = cuadricula.obtenerY(laberinto.obtenerDestino());
         // Dado el cuarto origen empieza a reconstruir la trayectoria de la solución.
-        dibujaSolucion(origenX, origenY);
-        // Si se usa el toString de la clase conjunto salen caractéres no deseados ,
-        // además de que a veces la trayectoria de la solución se sobrepone a 
-        // un círculo que representa uno de los cuartos salida.
-        StringBuilder temp = new StringBuilder();
-        for(String etiqueta : dibujo)
-            temp.append(etiqueta);
-        // Agrega círculos para indicar un cuarto salida.
+        if (compacto)
+            trazaSolucion(escritor, origenX, origenY);
+        else
+            dibujaSolucion(escritor, origenX, origenY);
+        // Agrega círculos para indicar un cuarto salida, después de la
+        // solución para que no se sobreponga a ellos.
         figuras.establecerColor("blue");
         figuras.establecerColorRelleno("blue");
-        temp.append(figuras.circulo(origenX * 20 + 20, origenY * 20 + 20, 5));
+        escritor.write(figuras.circulo(origenX * 20 + 20, origenY * 20 + 20, 5));
         figuras.establecerColor("red");
         figuras.establecerColorRelleno("red");
-        temp.append(figuras.circulo(destinoX * 20 + 20, destinoY * 20 + 20, 5));
-        return temp.toString();
+        escritor.write(figuras.circulo(destinoX * 20 + 20, destinoY * 20 + 20, 5));
+        escritor.write(FigurasSVG.finSVG());
     }
 
     /*
      * Dibuja la solución del laberinto con líneas verdes, dadas
-     * las coordenadas del cuarto de origen y haciendo uso de la lista
-     * de cuartos solución propocionada por el laberinto.
+     * las coordenadas del cuarto de origen y haciendo uso de los índices
+     * de los cuartos solución propocionados por el laberinto.
      */
-    private void dibujaSolucion(int x, int y) {
+    private void dibujaSolucion(Writer escritor, int x, int y) throws IOException {
         // Permite que las líneas luzcan continuas.
         double ajuste = figuras.obtenerGrosor() / 2;
-        IteradorLista<Cuarto> iterador = solucion.iteradorLista();
-        // Los cuartos actual y siguiente se posicionan en el cuarto origen.
-        Cuarto actual =  iterador.next();
-        Cuarto siguiente = actual;
         Direccion direccionActual = Direccion.NINGUNA;
         Direccion direccionSiguiente = Direccion.NINGUNA;
-        boolean centinela = true;
         figuras.establecerColor("green");
-        while(centinela) {
-            // Ajusta los índices del arreglo de dos dimensiones de cuartos.
+        for(int i = 0; i < solucion.length; i++) {
+            // Ajusta las coordenadas del cuarto actual.
             x += direccionActual.deltaX;
             y += direccionActual.deltaY;
             // Cada pared o puerta tiene longitud de 20
             // Se le suma 20 para que quede justo en medio de dos paredes del cuarto.
             double ajusteX = x * 20 + 20;
             double ajusteY = y * 20 + 20;
-            // Posiciona los cuartos actual y siguiente conforme al orden de la lista de cuartos solución.
-            if(iterador.hasNext()) {
-                actual = siguiente;
-                siguiente = iterador.next();
-                // Obtiene la dirección del cuarto solución respecto al cuarto actual.
-                direccionSiguiente = obtenerDireccionCuarto(siguiente, x, y);
-                dibujo.agrega(figuras.linea(ajusteX - ajuste * direccionSiguiente.deltaX,
-					    ajusteY - ajuste * direccionSiguiente.deltaY,
-					    ajusteX + 10 * direccionSiguiente.deltaX,
-					    ajusteY + 10 * direccionSiguiente.deltaY));
-            } else 
-                centinela = false;
-            dibujo.agrega(figuras.linea(ajusteX, ajusteY, ajusteX - 10 * direccionActual.deltaX, ajusteY - 10 * direccionActual.deltaY));
+            // Obtiene la dirección del cuarto solución siguiente respecto al cuarto actual.
+            if(i + 1 < solucion.length) {
+                direccionSiguiente = obtenerDireccionCuarto(solucion[i], solucion[i + 1]);
+                escritor.write(figuras.linea(ajusteX - ajuste * direccionSiguiente.deltaX,
+                                             ajusteY - ajuste * direccionSiguiente.deltaY,
+                                             ajusteX + 10 * direccionSiguiente.deltaX,
+                                             ajusteY + 10 * direccionSiguiente.deltaY));
+            }
+            escritor.write(figuras.linea(ajusteX, ajusteY, ajusteX - 10 * direccionActual.deltaX, ajusteY - 10 * direccionActual.deltaY));
             direccionActual = direccionSiguiente;
         }
     }
  
     /*
-     * Dados la coordenadas de un cuarto y su cuarto adyacente regresa la dirección donde
-     * se encuetra este.
+     * Dibuja la solución del laberinto como un solo trazo verde que va del
+     * centro del cuarto de origen al del destino, uniendo los pasos seguidos
+     * en la misma dirección.
      */
-    private Direccion obtenerDireccionCuarto(Cuarto siguiente, int x, int y) {
-        for(Direccion direccion : Direccion.obtenerCardinales()) {
-            if(obtenerCuarto(x + direccion.deltaX, y + direccion.deltaY) == siguiente)
-                return direccion;
+    private void trazaSolucion(Writer escritor, int x, int y) throws IOException {
+        figuras.establecerColor("green");
+        TrazoSVG trazo = iniciaTrazo(escritor);
+        // Las coordenadas del trazo son medios cuartos; el centro de un cuarto es impar.
+        x = x * 2 + 1;
+        y = y * 2 + 1;
+        Direccion direccion = Direccion.NINGUNA;
+        int pasos = 0;
+        for(int i = 0; i + 1 < solucion.length; i++) {
+            Direccion siguiente = obtenerDireccionCuarto(solucion[i], solucion[i + 1]);
+            // Al cambiar de dirección se escriben los pasos acumulados.
+            if(siguiente != direccion && pasos > 0) {
+                trazo.segmento(x, y, x + 2 * pasos * direccion.deltaX, y + 2 * pasos * direccion.deltaY);
+                x += 2 * pasos * direccion.deltaX;
+                y += 2 * pasos * direccion.deltaY;
+                pasos = 0;
+            }
+            direccion = siguiente;
+            pasos++;
         }
-        return Direccion.NINGUNA;
+        if(pasos > 0)
+            trazo.segmento(x, y, x + 2 * pasos * direccion.deltaX, y + 2 * pasos * direccion.deltaY);
+        terminaTrazo(escritor, trazo);
     }
-    
+
     /*
-     * Agrega la representación del cuarto en svg al conjunto de cadenas,
-     * Recibe un cuarto y las coordenadas de este.
+     * Empieza un grupo con el color actual y un trazo dentro de él, con
+     * coordenadas en medios cuartos: la esquina superior izquierda del
+     * laberinto es el origen.
      */
-    private void dibujaCuarto(Cuarto cuarto, int x, int y) {
-        // Cada pared o puerta tiene longitud de 20
-        // Se le suma 10 para ajustar al margen.
-        double ajusteX = x * 20 + 10;
-        double ajusteY = y * 20 + 10;
-        // Para que las líneas luzcan continuas.
-        double ajuste = figuras.obtenerGrosor() / 2;
-        figuras.establecerColor("black");
-        for (Direccion direccion : Direccion.obtenerCardinales()) {
-            // Si el cuarto no tiene la puerta en la dirección proporcionada dibuja una pared.
-            if (!cuarto.obtenerPuertas().contiene(direccion)) {
-                switch (direccion) {
-                    case NORTE:
-                            dibujo.agrega(figuras.linea(ajusteX - ajuste, ajusteY, ajusteX + 20 + ajuste, ajusteY));
-                        break;
-                    case SUR:
-                            dibujo.agrega(figuras.linea(ajusteX - ajuste, ajusteY + 20, ajusteX + 20 + ajuste, ajusteY + 20));
-                        break;
-                    case ESTE:
-                            dibujo.agrega(figuras.linea(ajusteX + 20, ajusteY - ajuste, ajusteX + 20, ajusteY + 20 + ajuste));
-                        break;
-                    case OESTE:
-                            dibujo.agrega(figuras.linea(ajusteX, ajusteY - ajuste, ajusteX, ajusteY + 20 + ajuste));
-                        break;
-                    default:
-                        break;
-                }
-            }
-        }
+    private TrazoSVG iniciaTrazo(Writer escritor) throws IOException {
+        escritor.write(figuras.inicioGrupo(10, 10, 10));
+        return new TrazoSVG(escritor);
     }
 
     /*
-     * Permite obtener un cuarto de manera segura del arreglo, dados los dos índices 
-     * correspondientes.
+     * Termina un trazo y el grupo que lo contiene.
      */
-    private Cuarto obtenerCuarto(int x, int y) {
-        if(x >= 0 && x < laberinto.obtenerAncho() && y >= 0 && y < laberinto.obtenerAlto())
-            return laberinto.obtenerCuartos()[y][x];
-        return null;
+    private static void terminaTrazo(Writer escritor, TrazoSVG trazo) throws IOException {
+        trazo.termina();
+        escritor.write(FigurasSVG.finGrupo());
+    }
+
+    /*
+     * Dados los índices de un cuarto y su cuarto adyacente regresa la dirección donde
+     * se encuetra este.
+     */
+    private Direccion obtenerDireccionCuarto(int actual, int siguiente) {
+        for(Direccion direccion : Direccion.obtenerCardinales()) {
+            if(cuadricula.vecino(actual, direccion) == siguiente)
+                return direccion;
+        }
+        return Direccion.NINGUNA;
     }
 
     /**
@@ -0,0 +1,453 @@
+package mx.unam.ciencias.edd.maze;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntBinaryOperator;
+import java.util.zip.CRC32;
+
+/**
+ * <p>Clase que dibuja un laberinto junto con su solución como una pirámide de
+ * mosaicos png, para explorarlo con acercamientos. Cada mosaico es el archivo
+ * <code>z/x/y.png</code> de un directorio, donde z es el nivel de
+ * acercamiento y x, y la columna y el renglón del mosaico en su nivel.</p>
+ * <p>Usa las coordenadas y las medidas de {@link GraficadorLaberinto}: la
+ * pared del norte del cuarto (x, y) va de <code>x * 20 + 10</code> a
+ * <code>x * 20 + 30</code> a la altura <code>y * 20 + 10</code>. En el último
+ * nivel una unidad es un pixel y en cada nivel anterior un pixel son el doble
+ * de unidades, hasta el nivel cero, donde todo cabe en un mosaico. La
+ * solución y los cuartos salida miden al menos un pixel en todos los
+ * niveles; las paredes se redondean al pixel más cercano.</p>
+ * <p>Cada mosaico se dibuja por separado a partir de los cuartos y de la
+ * solución, así que los mosaicos se reparten en varios hilos. En el
+ * directorio se guarda también la solución y una suma de los cuartos; si se
+ * vuelve a exportar el mismo laberinto con otra solución solo se dibujan de
+ * nuevo los mosaicos por los que pasa la solución anterior o la nueva.</p>
+ */
+public class GraficadorMosaicos {
+    /** Pixeles por lado de cada mosaico. */
+    public static final int TAMANIO = 256;
+    // La mitad del grosor de las líneas de GraficadorLaberinto.
+    private static final double AJUSTE = 2.5;
+    // El radio de los círculos de los cuartos salida, con su borde.
+    private static final double RADIO = 7.5;
+    // Archivo con las dimensiones y la suma de los cuartos del laberinto exportado.
+    private static final String ARCHIVO_LABERINTO = "laberinto.txt";
+    // Archivo con la solución dibujada en los mosaicos.
+    private static final String ARCHIVO_SOLUCION = "solucion.ruta";
+    // Regresa el dato del cuarto con las coordenadas dadas.
+    private final IntBinaryOperator cuartos;
+    private final int ANCHO;
+    private final int ALTO;
+    private final Trayectoria trayectoria;
+    // Los cuartos de la solución con sus conexiones, ordenados por índice.
+    private final long[] solucion;
+    private final long origen;
+    private final long destino;
+    // Las dimensiones del dibujo en unidades.
+    private final long ancho;
+    private final long alto;
+    // El nivel de mayor acercamiento, donde una unidad es un pixel.
+    private final int ultimoNivel;
+
+    /**
+     * Constructor que recibe un laberinto en memoria, que se dibuja con su solución.
+     * @param laberinto El laberinto.
+     * @throws IllegalArgumentException Si el laberinto es nulo.
+     */
+    public GraficadorMosaicos(Laberinto laberinto) throws IllegalArgumentException {
+        this(cuartos(laberinto), laberinto.obtenerAncho(), laberinto.obtenerAlto(),
+             laberinto.obtenerTrayectoria(), laberinto.obtenerOrigen(), laberinto.obtenerDestino());
+    }
+
+    /**
+     * Constructor que recibe un laberinto mapeado y validado, que se dibuja
+     * con la solución dada.
+     * @param laberinto El laberinto mapeado.
+     * @param solucion La solución del laberinto.
+     * @throws IllegalArgumentException Si la solución es demasiado larga para dibujarla.
+     */
+    public GraficadorMosaicos(LaberintoMapeado laberinto, Trayectoria solucion) throws IllegalArgumentException {
+        this(laberinto::obtenerDato, laberinto.obtenerAncho(), laberinto.obtenerAlto(),
+             solucion, laberinto.obtenerOrigen(), laberinto.obtenerDestino());
+    }
+
+    /*
+     * Constructor que recibe de dónde leer los cuartos, las dimensiones del
+     * laberinto, su solución y sus cuartos salida.
+     */
+    private GraficadorMosaicos(IntBinaryOperator cuartos, int anchoLaberinto, int altoLaberinto,
+                               Trayectoria trayectoria, long origen, long destino) {
+        if(trayectoria.obtenerLongitud() >= Integer.MAX_VALUE - 8)
+            throw new IllegalArgumentException("La solución es demasiado larga para dibujarla en mosaicos.");
+        this.cuartos = cuartos;
+        ANCHO = anchoLaberinto;
+        ALTO = altoLaberinto;
+        this.trayectoria = trayectoria;
+        this.origen = origen;
+        this.destino = destino;
+        ancho = (long) ANCHO * 20 + 20;
+        alto = (long) ALTO * 20 + 20;
+        solucion = GraficadorImagen.conexiones(trayectoria, ANCHO);
+        int nivel = 0;
+        while(((long) TAMANIO << nivel) < Math.max(ancho, alto))
+            nivel++;
+        ultimoNivel = nivel;
+    }
+
+    /*
+     * Regresa de dónde leer los cuartos de un laberinto en memoria.
+     */
+    private static IntBinaryOperator cuartos(Laberinto laberinto) {
+        if(laberinto == null)
+            throw new IllegalArgumentException("Proporciona una laberinto no nulo.");
+        Cuadricula cuadricula = laberinto.obtenerCuadricula();
+        return (x, y) -> cuadricula.obtenerDato(cuadricula.indice(x, y));
+    }
+
+    /**
+     * Exporta los mosaicos de todos los niveles al directorio dado. Si el
+     * directorio tiene los mosaicos del mismo laberinto solo se dibujan los
+     * que cambian con la solución.
+     * @param directorio El directorio de los mosaicos; se crea si no existe.
+     * @param hilos El número de hilos con los que se dibujan los mosaicos.
+     * @return Un resumen con los mosaicos dibujados, los niveles y el tiempo.
+     * @throws IOException Si ocurrió un error al leer o escribir el directorio.
+     * @throws IllegalArgumentException Si el número de hilos es inválido.
+     * @throws IllegalStateException Si se interrumpió el dibujo.
+     */
+    public String exporta(Path directorio, int hilos) throws IOException {
+        if(hilos < 1)
+            throw new IllegalArgumentException("El número de hilos debe de ser al menos 1.");
+        long inicio = System.nanoTime();
+        Files.createDirectories(directorio);
+        Path archivoLaberinto = directorio.resolve(ARCHIVO_LABERINTO);
+        Path archivoSolucion = directorio.resolve(ARCHIVO_SOLUCION);
+        String descripcion = ANCHO + " " + ALTO + " " + sumaCuartos() + "\n";
+        byte[] ruta = trayectoria.codifica(obtenerPeso()).array();
+        Trayectoria anterior = leeAnterior(archivoLaberinto, archivoSolucion, descripcion);
+        // Los renglones de mosaicos por dibujar de cada nivel, con sus
+        // columnas, o null si se dibujan todas.
+        Map<Long, Set<Long>> pendientes = new HashMap<>();
+        if(anterior == null) {
+            for(int z = 0; z <= ultimoNivel; z++) {
+                for(long y = 0; y < mosaicos(alto, z); y++)
+                    pendientes.put(renglon(z, y), null);
+            }
+        } else if(!Arrays.equals(ruta, Files.readAllBytes(archivoSolucion))) {
+            marcaMosaicos(pendientes, solucion);
+            marcaMosaicos(pendientes, GraficadorImagen.conexiones(anterior, ANCHO));
+        }
+        // Si el dibujo se interrumpe, la siguiente vez se dibuja todo.
+        Files.deleteIfExists(archivoLaberinto);
+        long dibujados = 0;
+        ExecutorService conjunto = Executors.newFixedThreadPool(hilos);
+        try {
+            List<Future<Long>> tareas = new ArrayList<>();
+            for(Map.Entry<Long, Set<Long>> entrada : pendientes.entrySet()) {
+                int z = (int) (entrada.getKey() >>> 32);
+                long y = entrada.getKey() & 0xFFFFFFFFL;
+                Set<Long> columnas = entrada.getValue();
+                tareas.add(conjunto.submit(() -> dibujaRenglon(directorio, z, y, columnas)));
+            }
+            for(Future<Long> tarea : tareas)
+                dibujados += tarea.get();
+        } catch(InterruptedException e) {
+            throw new IllegalStateException("Se interrumpió el dibujo de los mosaicos.", e);
+        } catch(ExecutionException e) {
+            if(e.getCause() instanceof IOException)
+                throw (IOException) e.getCause();
+            throw new IllegalStateException("No se pudieron dibujar los mosaicos.", e.getCause());
+        } finally {
+            conjunto.shutdownNow();
+        }
+        Files.write(archivoSolucion, ruta);
+        Files.write(archivoLaberinto, descripcion.getBytes(StandardCharsets.US_ASCII));
+        long total = 0;
+        for(int z = 0; z <= ultimoNivel; z++)
+            total += mosaicos(ancho, z) * mosaicos(alto, z);
+        return String.format("mosaicos dibujados %d de %d, niveles %d, tiempo %.1f ms%n",
+                             dibujados, total, ultimoNivel + 1, (System.nanoTime() - inicio) / 1e6);
+    }
+
+    /*
+     * Regresa la solución de una exportación anterior al directorio, o null
+     * si no hay o si fue de otro laberinto.
+     */
+    private static Trayectoria leeAnterior(Path archivoLaberinto, Path archivoSolucion,
+                                           String descripcion) throws IOException {
+        if(!Files.exists(archivoLaberinto) || !Files.exists(archivoSolucion))
+            return null;
+        String anterior = new String(Files.readAllBytes(archivoLaberinto), StandardCharsets.US_ASCII);
+        if(!anterior.equals(descripcion))
+            return null;
+        try {
+            return Trayectoria.decodifica(ByteBuffer.wrap(Files.readAllBytes(archivoSolucion)));
+        } catch(IllegalArgumentException iae) {
+            return null;
+        }
+    }
+
+    /*
+     * Marca los mosaicos de todos los niveles por los que pasa una solución,
+     * dados sus cuartos con sus conexiones.
+     */
+    private void marcaMosaicos(Map<Long, Set<Long>> pendientes, long[] cuartosSolucion) {
+        for(long cuarto : cuartosSolucion) {
+            long indice = cuarto >>> GraficadorImagen.BITS_CONEXIONES;
+            // Lo que se dibuja de la solución en un cuarto cabe a 10 unidades de su centro.
+            double x = indice % ANCHO * 20 + 20;
+            double y = indice / ANCHO * 20 + 20;
+            for(int z = 0; z <= ultimoNivel; z++) {
+                double escala = escala(z);
+                long x0 = inicio(x - 10, escala) / TAMANIO;
+                long x1 = (fin(x - 10, x + 10, escala) - 1) / TAMANIO;
+                long y0 = inicio(y - 10, escala) / TAMANIO;
+                long y1 = (fin(y - 10, y + 10, escala) - 1) / TAMANIO;
+                for(long my = y0; my <= y1; my++) {
+                    Set<Long> columnas = pendientes.computeIfAbsent(renglon(z, my), k -> new HashSet<>());
+                    for(long mx = x0; mx <= x1; mx++)
+                        columnas.add(mx);
+                }
+            }
+        }
+    }
+
+    /*
+     * Dibuja y escribe los mosaicos de un renglón de un nivel: los de las
+     * columnas dadas o, si son null, todos. Regresa cuántos dibujó.
+     */
+    private long dibujaRenglon(Path directorio, int z, long y, Set<Long> columnas) throws IOException {
+        Path carpeta = Files.createDirectories(directorio.resolve(Integer.toString(z)));
+        if(columnas == null) {
+            columnas = new HashSet<>();
+            for(long x = 0; x < mosaicos(ancho, z); x++)
+                columnas.add(x);
+        }
+        for(long x : columnas) {
+            byte[] pixeles = dibujaMosaico(z, x, y);
+            Path columna = Files.createDirectories(carpeta.resolve(Long.toString(x)));
+            try (OutputStream salida = Files.newOutputStream(columna.resolve(y + ".png"))) {
+                CodificadorPNG.escribe(salida, pixeles, TAMANIO, TAMANIO);
+            }
+        }
+        return columnas.size();
+    }
+
+    /*
+     * Dibuja el mosaico de la columna x y el renglón y del nivel z: las
+     * paredes, la solución y los cuartos salida que caen en él.
+     */
+    private byte[] dibujaMosaico(int z, long x, long y) {
+        byte[] pixeles = new byte[TAMANIO * TAMANIO];
+        double escala = escala(z);
+        long px = x * TAMANIO;
+        long py = y * TAMANIO;
+        // Los cuartos cuyas paredes pueden caer en el mosaico.
+        int x0 = (int) Math.max(0, Math.floor((px / escala - 20 - AJUSTE - 10) / 20));
+        int x1 = (int) Math.min(ANCHO - 1, Math.ceil(((px + TAMANIO) / escala + AJUSTE) / 20));
+        int y0 = (int) Math.max(0, Math.floor((py / escala - 20 - AJUSTE - 10) / 20));
+        int y1 = (int) Math.min(ALTO - 1, Math.ceil(((py + TAMANIO) / escala + AJUSTE) / 20));
+        for(int j = y0; j <= y1; j++) {
+            double arriba = j * 20 + 10;
+            for(int i = x0; i <= x1; i++) {
+                byte dato = (byte) cuartos.applyAsInt(i, j);
+                double izquierda = i * 20 + 10;
+                if(!Cuarto.tienePuerta(dato, Direccion.NORTE))
+                    rellenaPared(pixeles, escala, px, py, izquierda - AJUSTE, arriba - AJUSTE,
+                                 izquierda + 20 + AJUSTE, arriba + AJUSTE);
+                if(j == ALTO - 1 && !Cuarto.tienePuerta(dato, Direccion.SUR))
+                    rellenaPared(pixeles, escala, px, py, izquierda - AJUSTE, arriba + 20 - AJUSTE,
+                                 izquierda + 20 + AJUSTE, arriba + 20 + AJUSTE);
+                if(!Cuarto.tienePuerta(dato, Direccion.OESTE))
+                    rellenaPared(pixeles, escala, px, py, izquierda - AJUSTE, arriba - AJUSTE,
+                                 izquierda + AJUSTE, arriba + 20 + AJUSTE);
+                if(i == ANCHO - 1 && !Cuarto.tienePuerta(dato, Direccion.ESTE))
+                    rellenaPared(pixeles, escala, px, py, izquierda + 20 - AJUSTE, arriba - AJUSTE,
+                                 izquierda + 20 + AJUSTE, arriba + 20 + AJUSTE);
+            }
+        }
+        for(int j = y0; j <= y1; j++) {
+            int inicio = GraficadorImagen.buscaCuarto(solucion, (long) j * ANCHO + x0);
+            int fin = GraficadorImagen.buscaCuarto(solucion, (long) j * ANCHO + x1 + 1);
+            for(int k = inicio; k < fin; k++)
+                dibujaSolucion(pixeles, escala, px, py, solucion[k]);
+        }
+        dibujaSalida(pixeles, escala, px, py, origen, CodificadorPNG.ORIGEN);
+        dibujaSalida(pixeles, escala, px, py, destino, CodificadorPNG.DESTINO);
+        return pixeles;
+    }
+
+    /*
+     * Dibuja en verde las mitades de los pasos de la solución que llegan y
+     * salen de un cuarto, como las líneas de GraficadorLaberinto.
+     */
+    private void dibujaSolucion(byte[] pixeles, double escala, long px, long py, long cuarto) {
+        long indice = cuarto >>> GraficadorImagen.BITS_CONEXIONES;
+        double x = indice % ANCHO * 20 + 20;
+        double y = indice / ANCHO * 20 + 20;
+        rellena(pixeles, escala, px, py, x - AJUSTE, y - AJUSTE, x + AJUSTE, y + AJUSTE, CodificadorPNG.SOLUCION);
+        for(Direccion direccion : Direccion.obtenerCardinales()) {
+            if((cuarto & 1 << direccion.ordinal()) == 0)
+                continue;
+            double extremoX = x + 10 * direccion.deltaX;
+            double extremoY = y + 10 * direccion.deltaY;
+            rellena(pixeles, escala, px, py, Math.min(x, extremoX) - AJUSTE, Math.min(y, extremoY) - AJUSTE,
+                    Math.max(x, extremoX) + AJUSTE, Math.max(y, extremoY) + AJUSTE, CodificadorPNG.SOLUCION);
+        }
+    }
+
+    /*
+     * Dibuja el círculo de un cuarto salida, de al menos un pixel.
+     */
+    private void dibujaSalida(byte[] pixeles, double escala, long px, long py, long salida, byte color) {
+        double x = salida % ANCHO * 20 + 20;
+        double y = salida / ANCHO * 20 + 20;
+        rellena(pixeles, escala, px, py, x, y, x, y, color);
+        long c0 = Math.max(inicio(x - RADIO, escala), px);
+        long c1 = Math.min(fin(x - RADIO, x + RADIO, escala), px + TAMANIO);
+        long f0 = Math.max(inicio(y - RADIO, escala), py);
+        long f1 = Math.min(fin(y - RADIO, y + RADIO, escala), py + TAMANIO);
+        for(long f = f0; f < f1; f++) {
+            for(long c = c0; c < c1; c++) {
+                double dx = (c + 0.5) / escala - x;
+                double dy = (f + 0.5) / escala - y;
+                if(dx * dx + dy * dy <= RADIO * RADIO)
+                    pixeles[(int) ((f - py) * TAMANIO + (c - px))] = color;
+            }
+        }
+    }
+
+    /*
+     * Rellena la parte dentro del mosaico de un rectángulo dado en unidades,
+     * con al menos un pixel por lado. El mosaico empieza en el pixel px, py
+     * de su nivel.
+     */
+    private static void rellena(byte[] pixeles, double escala, long px, long py,
+                                double x0, double y0, double x1, double y1, byte color) {
+        rellena(pixeles, px, py, inicio(x0, escala), fin(x0, x1, escala),
+                inicio(y0, escala), fin(y0, y1, escala), color);
+    }
+
+    /*
+     * Rellena la parte dentro del mosaico de una pared dada en unidades,
+     * redondeando sus bordes al pixel más cercano; en los niveles lejanos las
+     * paredes más delgadas que un pixel pueden desaparecer, así que el
+     * laberinto se ve como un tono entre blanco y negro y no todo negro.
+     */
+    private static void rellenaPared(byte[] pixeles, double escala, long px, long py,
+                                     double x0, double y0, double x1, double y1) {
+        rellena(pixeles, px, py, Math.round(x0 * escala), Math.round(x1 * escala),
+                Math.round(y0 * escala), Math.round(y1 * escala), CodificadorPNG.PARED);
+    }
+
+    /*
+     * Rellena la parte dentro del mosaico de un rectángulo dado en pixeles
+     * del nivel, sin incluir las columnas c1 ni el renglón f1.
+     */
+    private static void rellena(byte[] pixeles, long px, long py,
+                                long c0, long c1, long f0, long f1, byte color) {
+        c0 = Math.max(c0, px);
+        c1 = Math.min(c1, px + TAMANIO);
+        f0 = Math.max(f0, py);
+        f1 = Math.min(f1, py + TAMANIO);
+        if(c0 >= c1)
+            return;
+        for(long f = f0; f < f1; f++) {
+            int renglon = (int) ((f - py) * TAMANIO - px);
+            Arrays.fill(pixeles, renglon + (int) c0, renglon + (int) c1, color);
+        }
+    }
+
+    /*
+     * Regresa el primer pixel de un intervalo que empieza en la unidad dada.
+     */
+    private static long inicio(double a, double escala) {
+        return (long) Math.floor(a * escala);
+    }
+
+    /*
+     * Regresa el pixel siguiente al último de un intervalo de unidades, que
+     * tiene al menos un pixel.
+     */
+    private static long fin(double a, double b, double escala) {
+        return Math.max(inicio(a, escala) + 1, (long) Math.ceil(b * escala));
+    }
+
+    /*
+     * Regresa cuántos pixeles mide una unidad en un nivel.
+     */
+    private double escala(int z) {
+        return Math.scalb(1.0, z - ultimoNivel);
+    }
+
+    /*
+     * Regresa cuántos mosaicos se necesitan en un nivel para cubrir una
+     * longitud en unidades.
+     */
+    private long mosaicos(long longitud, int z) {
+        return Math.max(1, (long) Math.ceil(longitud * escala(z) / TAMANIO));
+    }
+
+    /*
+     * Regresa la llave de un renglón de mosaicos de un nivel.
+     */
+    private static long renglon(int z, long y) {
+        return (long) z << 32 | y;
+    }
+
+    /*
+     * Regresa una suma de verificación de los cuartos del laberinto, para
+     * saber si los mosaicos de un directorio son de este laberinto.
+     */
+    private long sumaCuartos() {
+        CRC32 crc = new CRC32();
+        byte[] renglon = new byte[ANCHO];
+        for(int y = 0; y < ALTO; y++) {
+            for(int x = 0; x < ANCHO; x++)
+                renglon[x] = (byte) cuartos.applyAsInt(x, y);
+            crc.update(renglon);
+        }
+        return crc.getValue();
+    }
+
+    /*
+     * Regresa el peso de la solución: la suma de los puntajes de los cuartos
+     * de cada paso más uno.
+     */
+    private long obtenerPeso() {
+        int x = trayectoria.obtenerInicioX();
+        int y = trayectoria.obtenerInicioY();
+        long peso = 0;
+        for(long i = 0; i < trayectoria.obtenerLongitud(); i++) {
+            Direccion direccion = trayectoria.obtenerPaso(i);
+            peso += Cuarto.obtenerPuntaje((byte) cuartos.applyAsInt(x, y)) + 1;
+            x += direccion.deltaX;
+            y += direccion.deltaY;
+            peso += Cuarto.obtenerPuntaje((byte) cuartos.applyAsInt(x, y));
+        }
+        return peso;
+    }
+
+    /**
+     * Obtiene el número de niveles de la pirámide.
+     * @return el número de niveles de la pirámide.
+     */
+    public int obtenerNiveles() {
+        return ultimoNivel + 1;
+    }
+}
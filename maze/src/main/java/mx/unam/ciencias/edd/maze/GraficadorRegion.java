@@ -0,0 +1,241 @@
+package mx.unam.ciencias.edd.maze;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * <p>Clase que dibuja con svg una región rectangular de un laberinto mapeado
+ * junto con la parte de su solución que pasa por ella.</p>
+ * <p>Usa los mismos colores y medidas que {@link GraficadorLaberinto}; solo se
+ * leen del archivo los cuartos de la región y las etiquetas se escriben
+ * conforme se generan. También tiene el modo compacto, con las paredes y
+ * la solución como trazos.</p>
+ */
+public class GraficadorRegion {
+    private LaberintoMapeado laberinto;
+    private Trayectoria solucion;
+    // Permite crear las etiquetas svg.
+    private FigurasSVG figuras;
+    // Esquina superior izquierda y dimensiones de la región, en cuartos.
+    private final int X;
+    private final int Y;
+    private final int ANCHO_REGION;
+    private final int ALTO_REGION;
+    private int ancho;
+    private int alto;
+    // Si las paredes y la solución se dibujan como trazos.
+    private final boolean compacto;
+
+    /**
+     * Constructor que recibe el laberinto, su solución y la región por dibujar.
+     * La región se recorta a los límites del laberinto.
+     * @param laberinto El laberinto mapeado.
+     * @param solucion La solución del laberinto.
+     * @param x La coordenada x de la esquina superior izquierda de la región.
+     * @param y La coordenada y de la esquina superior izquierda de la región.
+     * @param anchoRegion El ancho de la región en cuartos.
+     * @param altoRegion El alto de la región en cuartos.
+     * @throws IllegalArgumentException Si la región no tiene cuartos del
+     *         laberinto o es demasiado grande para dibujarla.
+     */
+    public GraficadorRegion(LaberintoMapeado laberinto, Trayectoria solucion,
+                            int x, int y, int anchoRegion, int altoRegion) throws IllegalArgumentException {
+        this(laberinto, solucion, x, y, anchoRegion, altoRegion, false);
+    }
+
+    /**
+     * Constructor que recibe el laberinto, su solución, la región por dibujar
+     * y si se dibuja con trazos. La región se recorta a los límites del laberinto.
+     * @param laberinto El laberinto mapeado.
+     * @param solucion La solución del laberinto.
+     * @param x La coordenada x de la esquina superior izquierda de la región.
+     * @param y La coordenada y de la esquina superior izquierda de la región.
+     * @param anchoRegion El ancho de la región en cuartos.
+     * @param altoRegion El alto de la región en cuartos.
+     * @param compacto Si las paredes y la solución se dibujan como trazos.
+     * @throws IllegalArgumentException Si la región no tiene cuartos del
+     *         laberinto o es demasiado grande para dibujarla.
+     */
+    public GraficadorRegion(LaberintoMapeado laberinto, Trayectoria solucion, int x, int y,
+                            int anchoRegion, int altoRegion, boolean compacto) throws IllegalArgumentException {
+        X = Math.max(x, 0);
+        Y = Math.max(y, 0);
+        ANCHO_REGION = (int) Math.min((long) x + anchoRegion, laberinto.obtenerAncho()) - X;
+        ALTO_REGION = (int) Math.min((long) y + altoRegion, laberinto.obtenerAlto()) - Y;
+        if(ANCHO_REGION <= 0 || ALTO_REGION <= 0)
+            throw new IllegalArgumentException("La región está fuera del laberinto.");
+        // Las conexiones de la solución con cada cuarto tienen que caber en un arreglo.
+        if((long) ANCHO_REGION * ALTO_REGION > Integer.MAX_VALUE - 8
+           || (long) Math.max(ANCHO_REGION, ALTO_REGION) * 20 + 20 > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("La región es demasiado grande para dibujarla.");
+        this.laberinto = laberinto;
+        this.solucion = solucion;
+        figuras = new FigurasSVG();
+        ancho = ANCHO_REGION * 20 + 20;
+        alto = ALTO_REGION * 20 + 20;
+        this.compacto = compacto;
+    }
+
+    /**
+     * Escribe el archivo svg de la región del laberinto junto con su
+     * solución. No vacía ni cierra el escritor.
+     * @param escritor Donde se escribe el dibujo.
+     * @throws IOException Si ocurrió un error al escribir.
+     */
+    public void dibuja(Writer escritor) throws IOException {
+        escritor.write(FigurasSVG.inicioSVG(ancho, alto));
+        figuras.establecerColor("black");
+        TrazoSVG trazo = compacto ? iniciaTrazo(escritor) : null;
+        ParedesSVG paredes = new ParedesSVG(escritor, figuras, trazo, ANCHO_REGION, ALTO_REGION);
+        byte[] renglon = new byte[ANCHO_REGION];
+        for(int y = 0; y < ALTO_REGION; y++) {
+            for(int x = 0; x < ANCHO_REGION; x++)
+                renglon[x] = laberinto.obtenerDato(X + x, Y + y);
+            paredes.dibujaRenglon(renglon, 0, y);
+        }
+        if(compacto)
+            terminaTrazo(escritor, trazo);
+        dibujaSolucion(escritor);
+        // Agrega círculos para indicar un cuarto salida, si están en la región.
+        figuras.establecerColor("blue");
+        figuras.establecerColorRelleno("blue");
+        dibujaSalida(escritor, laberinto.obtenerOrigen());
+        figuras.establecerColor("red");
+        figuras.establecerColorRelleno("red");
+        dibujaSalida(escritor, laberinto.obtenerDestino());
+        escritor.write(FigurasSVG.finSVG());
+    }
+
+    /*
+     * Recorre la solución y, para cada cuarto de la región por el que pasa,
+     * dibuja en verde las mitades de los pasos que llegan y salen de él.
+     */
+    private void dibujaSolucion(Writer escritor) throws IOException {
+        // Las direcciones que conectan a cada cuarto de la región con la solución.
+        byte[] conexiones = new byte[ANCHO_REGION * ALTO_REGION];
+        int x = solucion.obtenerInicioX();
+        int y = solucion.obtenerInicioY();
+        for(long i = 0; i < solucion.obtenerLongitud(); i++) {
+            Direccion direccion = solucion.obtenerPaso(i);
+            conecta(conexiones, x, y, direccion);
+            x += direccion.deltaX;
+            y += direccion.deltaY;
+            conecta(conexiones, x, y, direccion.opuesta());
+        }
+        if(compacto) {
+            trazaSolucion(escritor, conexiones);
+            return;
+        }
+        // Permite que las líneas luzcan continuas.
+        double ajuste = figuras.obtenerGrosor() / 2;
+        figuras.establecerColor("green");
+        for(int i = 0; i < conexiones.length; i++) {
+            double ajusteX = (i % ANCHO_REGION) * 20 + 20;
+            double ajusteY = (i / ANCHO_REGION) * 20 + 20;
+            for(Direccion direccion : Direccion.obtenerCardinales()) {
+                if((conexiones[i] & (1 << direccion.ordinal())) != 0)
+                    escritor.write(figuras.linea(ajusteX - ajuste * direccion.deltaX,
+                                                 ajusteY - ajuste * direccion.deltaY,
+                                                 ajusteX + 10 * direccion.deltaX,
+                                                 ajusteY + 10 * direccion.deltaY));
+            }
+        }
+    }
+
+    /*
+     * Dibuja como un solo trazo las mitades de pasos de la solución, uniendo
+     * las seguidas de cada renglón y de cada columna de la región.
+     */
+    private void trazaSolucion(Writer escritor, byte[] conexiones) throws IOException {
+        figuras.establecerColor("green");
+        TrazoSVG trazo = iniciaTrazo(escritor);
+        for(int y = 0; y < ALTO_REGION; y++)
+            trazaRecta(trazo, conexiones, y * ANCHO_REGION, 1, ANCHO_REGION, y * 2 + 1, true);
+        for(int x = 0; x < ANCHO_REGION; x++)
+            trazaRecta(trazo, conexiones, x, ANCHO_REGION, ALTO_REGION, x * 2 + 1, false);
+        terminaTrazo(escritor, trazo);
+    }
+
+    /*
+     * Agrega al trazo las partes de la solución sobre la recta que pasa por
+     * el centro de n cuartos de la región, separados por salto en el arreglo
+     * de conexiones. Las coordenadas son medios cuartos: una parte empieza y
+     * termina en el borde de un cuarto si sigue hacia atrás o hacia adelante,
+     * y en su centro si no.
+     */
+    private static void trazaRecta(TrazoSVG trazo, byte[] conexiones, int primero, int salto,
+                                   int n, int centro, boolean horizontal) throws IOException {
+        Direccion atras = horizontal ? Direccion.OESTE : Direccion.NORTE;
+        Direccion adelante = horizontal ? Direccion.ESTE : Direccion.SUR;
+        for(int k = 0; k < n; k++) {
+            byte conexion = conexiones[primero + k * salto];
+            boolean sigue = (conexion & (1 << adelante.ordinal())) != 0;
+            if(!sigue && (conexion & (1 << atras.ordinal())) == 0)
+                continue;
+            int inicio = (conexion & (1 << atras.ordinal())) != 0 ? k * 2 : k * 2 + 1;
+            // El cuarto de adelante, si está en la región, se conecta hacia atrás.
+            while(sigue && k + 1 < n) {
+                k++;
+                sigue = (conexiones[primero + k * salto] & (1 << adelante.ordinal())) != 0;
+            }
+            int fin = sigue ? k * 2 + 2 : k * 2 + 1;
+            if(horizontal)
+                trazo.segmento(inicio, centro, fin, centro);
+            else
+                trazo.segmento(centro, inicio, centro, fin);
+        }
+    }
+
+    /*
+     * Empieza un grupo con el color actual y un trazo dentro de él, con
+     * coordenadas en medios cuartos: la esquina superior izquierda de la
+     * región es el origen.
+     */
+    private TrazoSVG iniciaTrazo(Writer escritor) throws IOException {
+        escritor.write(figuras.inicioGrupo(10, 10, 10));
+        return new TrazoSVG(escritor);
+    }
+
+    /*
+     * Termina un trazo y el grupo que lo contiene.
+     */
+    private static void terminaTrazo(Writer escritor, TrazoSVG trazo) throws IOException {
+        trazo.termina();
+        escritor.write(FigurasSVG.finGrupo());
+    }
+
+    /*
+     * Marca que el cuarto con las coordenadas dadas se conecta con la
+     * solución en la dirección dada, si está en la región.
+     */
+    private void conecta(byte[] conexiones, int x, int y, Direccion direccion) {
+        if(x >= X && x < X + ANCHO_REGION && y >= Y && y < Y + ALTO_REGION)
+            conexiones[(y - Y) * ANCHO_REGION + (x - X)] |= 1 << direccion.ordinal();
+    }
+
+    /*
+     * Escribe el círculo de un cuarto salida si está en la región.
+     */
+    private void dibujaSalida(Writer escritor, long salida) throws IOException {
+        int x = (int) (salida % laberinto.obtenerAncho()) - X;
+        int y = (int) (salida / laberinto.obtenerAncho()) - Y;
+        if(x >= 0 && x < ANCHO_REGION && y >= 0 && y < ALTO_REGION)
+            escritor.write(figuras.circulo(x * 20 + 20, y * 20 + 20, 5));
+    }
+
+    /**
+     * Obtiene el ancho del dibujo.
+     * @return el ancho del dibujo.
+     */
+    public int obtenerAncho() {
+        return ancho;
+    }
+
+    /**
+     * Obtiene el alto del dibujo.
+     * @return el alto del dibujo.
+     */
+    public int obtenerAlto() {
+        return alto;
+    }
+}
@@ -1,10 +1,13 @@
 package mx.unam.ciencias.edd.maze;
 
-import java.util.Random;
-import mx.unam.ciencias.edd.Lista;
-import mx.unam.ciencias.edd.Pila;
-import mx.unam.ciencias.edd.Grafica;
-import mx.unam.ciencias.edd.VerticeGrafica;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import mx.unam.ciencias.edd.ConjuntosDisjuntos;
 
 /**
  * <p>Clase que proporciona una representación gráfica de un laberinto junto con su solución.</p>
@@ -16,31 +19,69 @@ import mx.unam.ciencias.edd.VerticeGrafica;
  * <p>Por la implementación de la clase laberinto podemos asegurar que el propocionado siempre tiene solución</p>
  */
 public class Laberinto {
-    private Random generador;
-    private Grafica<Cuarto> laberinto;
-    private Lista<Cuarto> solucion;
-    private Cuarto[][] cuartos;
-    private Cuarto origen;
-    private Cuarto destino;
+    // Teselas por hilo al generar en paralelo, para repartir mejor el trabajo.
+    private static final int TESELAS_POR_HILO = 4;
+    private Aleatorio generador;
+    private TipoAleatorio tipoAleatorio;
+    private Cuadricula cuadricula;
+    private Solucionador solucionador;
+    // Índices de los cuartos de la solución, se calcula hasta que se pide.
+    private int[] solucion;
+    // Índices de los cuartos salida, -1 si no se han encontrado.
+    private int origen;
+    private int destino;
+    // Si el laberinto no tiene ciclos.
+    private boolean perfecto;
     private final int ANCHO;
     private final int ALTO;
 
     /**
-     * Constructor para inicializar un laberinto dado un arrglo de bytes.
+     * Constructor para inicializar un laberinto dada una cuadrícula de cuartos.
+     * Verifica que el laberinto sea válido de acuerdo con los requerimientos
+     * del proyecto. Si no tiene ciclos se resuelve con un recorrido en tiempo
+     * lineal y si tiene se resuelve con el algoritmo de Dijkstra.
+     * @param cuadricula La cuadrícula de donde se extrae la información de los cuartos.
+     * @throws IllegalStateException Si el laberinto no es válido.
+     */
+    public Laberinto(Cuadricula cuadricula) throws IllegalStateException {
+        this(cuadricula, null);
+    }
+
+    /**
+     * Constructor para inicializar un laberinto dada una cuadrícula de cuartos
+     * y el solucionador con el que se resuelve.
      * Verifica que el laberinto sea válido de acuerdo con los requerimientos
      * del proyecto.
-     * @param datos arreglo de bytes de dos dimensiones de donde se extrae la información de los cuartos.
+     * @param cuadricula La cuadrícula de donde se extrae la información de los cuartos.
+     * @param solucionador El algoritmo con el que se resuelve el laberinto, o
+     *        <code>null</code> para elegirlo según si el laberinto tiene ciclos.
      * @throws IllegalStateException Si el laberinto no es válido.
      */
-    public Laberinto(byte[][] datos) throws IllegalStateException {
-        ANCHO = datos[0].length;
-        ALTO = datos.length;
-        cuartos = new Cuarto[ALTO][ANCHO];
-        laberinto = new Grafica<>();
-        solucion = new Lista<>();
-        validaLaberinto(datos);
-        obtenerSolucion();
-        if(solucion.esVacia())
+    public Laberinto(Cuadricula cuadricula, Solucionador solucionador) throws IllegalStateException {
+        this(cuadricula, solucionador != null ? solucionador : new SolucionadorArbol(),
+             solucionador != null ? solucionador : new SolucionadorDijkstra());
+    }
+
+    /**
+     * Constructor para inicializar un laberinto dada una cuadrícula de cuartos
+     * y los solucionadores con los que se resuelve según si tiene ciclos, que
+     * se pueden reutilizar entre laberintos.
+     * Verifica que el laberinto sea válido de acuerdo con los requerimientos
+     * del proyecto.
+     * @param cuadricula La cuadrícula de donde se extrae la información de los cuartos.
+     * @param solucionadorPerfecto El algoritmo con el que se resuelve si no tiene ciclos.
+     * @param solucionadorCiclos El algoritmo con el que se resuelve si tiene ciclos.
+     * @throws IllegalStateException Si el laberinto no es válido.
+     */
+    public Laberinto(Cuadricula cuadricula, Solucionador solucionadorPerfecto,
+                     Solucionador solucionadorCiclos) throws IllegalStateException {
+        ANCHO = cuadricula.obtenerAncho();
+        ALTO = cuadricula.obtenerAlto();
+        this.cuadricula = cuadricula;
+        origen = destino = -1;
+        validaLaberinto();
+        solucionador = perfecto ? solucionadorPerfecto : solucionadorCiclos;
+        if(origen == -1 || destino == -1 || obtenerSolucion().length == 0)
             throw new IllegalStateException("El laberinto no tiene solución.");
     }
 
@@ -51,36 +92,198 @@ public class Laberinto {
      * @param alto Alto del laberinto.
      */
     public Laberinto(long semilla, int ancho, int alto) {
+        this(semilla, ancho, alto, new GeneradorDFS(), 1);
+    }
+
+    /**
+     * Constructor que permite crear un laberinto de forma aleatoria con el
+     * recorrido dfs-random usando varios hilos.
+     * @param semilla Semilla del RNG.
+     * @param ancho Ancho del laberinto.
+     * @param alto Alto del laberinto.
+     * @param hilos Número de hilos.
+     * @throws IllegalArgumentException Si el número de hilos no es positivo.
+     * @throws IllegalStateException Si se interrumpió la generación.
+     */
+    public Laberinto(long semilla, int ancho, int alto, int hilos) {
+        this(semilla, ancho, alto, new GeneradorDFS(), hilos);
+    }
+
+    /**
+     * Constructor que permite crear un laberinto de forma aleatoria con el
+     * generador dado usando varios hilos. La cuadrícula se divide en teselas;
+     * cada tesela se genera en un hilo con su propio generador de números
+     * aleatorios, derivado de la semilla, y después
+     * las teselas se unen con un árbol generador aleatorio de teselas,
+     * abriendo una puerta por cada arista del árbol, así que el laberinto
+     * sigue sin ciclos. Para una semilla y un número de hilos el laberinto
+     * siempre es el mismo; con un hilo se genera todo de una vez.
+     * @param semilla Semilla del RNG.
+     * @param ancho Ancho del laberinto.
+     * @param alto Alto del laberinto.
+     * @param generadorCuartos El algoritmo con el que se generan los cuartos.
+     * @param hilos Número de hilos.
+     * @throws IllegalArgumentException Si el número de hilos no es positivo.
+     * @throws IllegalStateException Si se interrumpió la generación.
+     */
+    public Laberinto(long semilla, int ancho, int alto, Generador generadorCuartos, int hilos) {
+        this(semilla, ancho, alto, generadorCuartos, TipoAleatorio.LEGADO, hilos);
+    }
+
+    /**
+     * Constructor que permite crear un laberinto de forma aleatoria con el
+     * generador de cuartos y el tipo de generador de números aleatorios
+     * dados, usando varios hilos. Con {@link TipoAleatorio#LEGADO} el
+     * laberinto es el mismo que el de las versiones anteriores.
+     * @param semilla Semilla del RNG.
+     * @param ancho Ancho del laberinto.
+     * @param alto Alto del laberinto.
+     * @param generadorCuartos El algoritmo con el que se generan los cuartos.
+     * @param tipoAleatorio El tipo de generador de números aleatorios.
+     * @param hilos Número de hilos.
+     * @throws IllegalArgumentException Si el número de hilos no es positivo.
+     * @throws IllegalStateException Si se interrumpió la generación.
+     */
+    public Laberinto(long semilla, int ancho, int alto, Generador generadorCuartos,
+                     TipoAleatorio tipoAleatorio, int hilos) {
+        if(hilos < 1)
+            throw new IllegalArgumentException("El número de hilos debe de ser al menos 1.");
         ANCHO = ancho;
         ALTO = alto;
-        cuartos = new Cuarto[ALTO][ANCHO];
-        laberinto = new Grafica<>();
-        generador = new Random(semilla);
-        int x = generador.nextInt(ancho);
-        int y = generador.nextInt(alto);
-        int puntaje = generador.nextInt(15);
-        cuartos[y][x] = new Cuarto();
-        cuartos[y][x].establecerPuntaje((byte) puntaje);
-        generaLaberinto(x, y);
+        cuadricula = new Cuadricula(ancho, alto);
+        // Todos los generadores producen un árbol generador de los cuartos.
+        perfecto = true;
+        solucionador = new SolucionadorArbol();
+        origen = destino = -1;
+        this.tipoAleatorio = tipoAleatorio;
+        if(hilos == 1 && generadorCuartos instanceof GeneradorEller) {
+            // Como al escribirlo por renglones, las salidas se eligen antes de
+            // generar, así que para una semilla ambos laberintos son el mismo.
+            generador = tipoAleatorio.crea(semilla);
+            int[][] salidas = GeneradorEller.salidas(generador, ANCHO, ALTO);
+            generadorCuartos.genera(cuadricula, generador, 0, 0, ANCHO, ALTO);
+            origen = abreSalida(salidas[0]);
+            destino = abreSalida(salidas[1]);
+            return;
+        }
+        if(hilos == 1) {
+            generador = tipoAleatorio.crea(semilla);
+            generadorCuartos.genera(cuadricula, generador, 0, 0, ANCHO, ALTO);
+        } else {
+            SplittableRandom raiz = new SplittableRandom(semilla);
+            int teselas = hilos * TESELAS_POR_HILO;
+            int columnas = Math.min(ANCHO, (int) Math.ceil(Math.sqrt(teselas)));
+            int renglones = Math.min(ALTO, (teselas + columnas - 1) / columnas);
+            generaTeselas(generadorCuartos, raiz, columnas, renglones, hilos);
+            unirTeselas(raiz, columnas, renglones);
+            generador = tipoAleatorio.crea(raiz.nextLong());
+        }
         origen = obtenerSalida();
         destino = obtenerSalida();
     }
 
+    /*
+     * Regresa el inicio de la i-ésima de n partes de un intervalo de longitud dada.
+     */
+    private static int corte(int i, int n, int longitud) {
+        return (int) ((long) i * longitud / n);
+    }
+
+    /*
+     * Genera cada tesela con el generador dado en un hilo del conjunto,
+     * cada una con un generador que se deriva de la raíz en el orden de las
+     * teselas, así que el resultado no depende de cómo se repartan los hilos.
+     */
+    private void generaTeselas(Generador generadorCuartos, SplittableRandom raiz,
+                               int columnas, int renglones, int hilos) {
+        List<Callable<Void>> tareas = new ArrayList<>();
+        for(int j = 0; j < renglones; j++) {
+            for(int i = 0; i < columnas; i++) {
+                Aleatorio aleatorio = tipoAleatorio.crea(raiz.split().nextLong());
+                int x0 = corte(i, columnas, ANCHO);
+                int y0 = corte(j, renglones, ALTO);
+                int ancho = corte(i + 1, columnas, ANCHO) - x0;
+                int alto = corte(j + 1, renglones, ALTO) - y0;
+                tareas.add(() -> {
+                    generadorCuartos.genera(cuadricula, aleatorio, x0, y0, ancho, alto);
+                    return null;
+                });
+            }
+        }
+        ForkJoinPool conjunto = new ForkJoinPool(hilos);
+        try {
+            for(Future<Void> tarea : conjunto.invokeAll(tareas))
+                tarea.get();
+        } catch(InterruptedException | ExecutionException e) {
+            throw new IllegalStateException("No se pudo generar el laberinto en paralelo.", e);
+        } finally {
+            conjunto.shutdown();
+        }
+    }
+
+    /*
+     * Une las teselas con un árbol generador aleatorio (Kruskal sobre las
+     * aristas entre teselas vecinas en orden aleatorio). Por cada arista del
+     * árbol se abre una puerta en un cuarto aleatorio del borde compartido.
+     */
+    private void unirTeselas(SplittableRandom raiz, int columnas, int renglones) {
+        // Cada arista es 2 * tesela, más uno si la vecina es la de abajo.
+        int[] aristas = new int[2 * columnas * renglones];
+        int total = 0;
+        for(int tesela = 0; tesela < columnas * renglones; tesela++) {
+            if(tesela % columnas + 1 < columnas)
+                aristas[total++] = 2 * tesela;
+            if(tesela / columnas + 1 < renglones)
+                aristas[total++] = 2 * tesela + 1;
+        }
+        for(int k = total - 1; k > 0; k--) {
+            int l = raiz.nextInt(k + 1);
+            int t = aristas[k];
+            aristas[k] = aristas[l];
+            aristas[l] = t;
+        }
+        ConjuntosDisjuntos teselas = new ConjuntosDisjuntos(columnas * renglones);
+        for(int k = 0; k < total; k++) {
+            int tesela = aristas[k] / 2;
+            int i = tesela % columnas;
+            int j = tesela / columnas;
+            boolean abajo = aristas[k] % 2 == 1;
+            if(!teselas.une(tesela, abajo ? tesela + columnas : tesela + 1))
+                continue;
+            int x0 = corte(i, columnas, ANCHO);
+            int y0 = corte(j, renglones, ALTO);
+            int x, y;
+            Direccion direccion;
+            if(abajo) {
+                x = x0 + raiz.nextInt(corte(i + 1, columnas, ANCHO) - x0);
+                y = corte(j + 1, renglones, ALTO) - 1;
+                direccion = Direccion.SUR;
+            } else {
+                x = corte(i + 1, columnas, ANCHO) - 1;
+                y = y0 + raiz.nextInt(corte(j + 1, renglones, ALTO) - y0);
+                direccion = Direccion.ESTE;
+            }
+            cuadricula.abrePuerta(cuadricula.indice(x, y), direccion);
+        }
+    }
+
     /*
      * Regresa un cuarto salida aleatorio del laberinto, un cuarto salida es un cuarto que tiene un puerta que 
      * no conecta con otro cuarto.
      */
-    private Cuarto obtenerSalida() {
+    private int obtenerSalida() {
+        if(tipoAleatorio != TipoAleatorio.LEGADO)
+            return obtenerSalidaDirecta();
         boolean centinela = true;
-        Cuarto salida = null;
+        int salida = -1;
         // Recorre los bordes del laberinto de forma aleatoria para establecer un cuarto de salida.
         if(generador.nextBoolean()) {
             int limiteY = generador.nextBoolean() ? 0 : ALTO - 1;
             while(centinela) {
                 for(int x = 0; x < ANCHO; x++) {
-                    if(generador.nextInt(ANCHO) == 1 && !esSalida(cuartos[limiteY][x])) {
-                        salida = cuartos[limiteY][x];
-                        salida.establecerPuerta(limiteY == 0 ? Direccion.NORTE : Direccion.SUR);
+                    if(generador.nextInt(ANCHO) == 1 && !esSalida(cuadricula.indice(x, limiteY))) {
+                        salida = cuadricula.indice(x, limiteY);
+                        cuadricula.establecerPuerta(salida, limiteY == 0 ? Direccion.NORTE : Direccion.SUR);
                         centinela = false;
                         break;
                     }
@@ -90,9 +293,9 @@ public class Laberinto {
             int limiteX = generador.nextBoolean() ? 0 : ANCHO - 1;
             while(centinela) {
                 for(int y = 0; y < ALTO; y++) {
-                    if(generador.nextInt(ALTO) == 1 && !esSalida(cuartos[y][limiteX])) {
-                        salida = cuartos[y][limiteX];
-                        salida.establecerPuerta(limiteX == 0 ? Direccion.OESTE : Direccion.ESTE);
+                    if(generador.nextInt(ALTO) == 1 && !esSalida(cuadricula.indice(limiteX, y))) {
+                        salida = cuadricula.indice(limiteX, y);
+                        cuadricula.establecerPuerta(salida, limiteX == 0 ? Direccion.OESTE : Direccion.ESTE);
                         centinela = false;
                         break;
                     }
@@ -103,164 +306,122 @@ public class Laberinto {
     }
 
     /*
-     * Verifica si un cuarto es una salida.
+     * Elige el cuarto salida directamente: un lado y una posición en ese
+     * lado, y repite solo si cae en la otra salida. El recorrido del borde de
+     * obtenerSalida solo se conserva para reproducir los laberintos legados.
      */
-    private boolean esSalida(Cuarto cuarto) {
-        return cuarto == destino || cuarto == origen;
+    private int obtenerSalidaDirecta() {
+        while(true) {
+            Direccion lado;
+            int salida;
+            if(generador.nextBoolean()) {
+                lado = generador.nextBoolean() ? Direccion.NORTE : Direccion.SUR;
+                int y = lado == Direccion.NORTE ? 0 : ALTO - 1;
+                salida = cuadricula.indice(generador.nextInt(ANCHO), y);
+            } else {
+                lado = generador.nextBoolean() ? Direccion.OESTE : Direccion.ESTE;
+                int x = lado == Direccion.OESTE ? 0 : ANCHO - 1;
+                salida = cuadricula.indice(x, generador.nextInt(ALTO));
+            }
+            if(esSalida(salida))
+                continue;
+            cuadricula.establecerPuerta(salida, lado);
+            return salida;
+        }
     }
 
     /*
-     * Genera el laberinto utilizando el recorrido dfs-random.
-     * Empieza a generar apartir del cuarto origen.
+     * Abre la puerta hacia fuera de una salida elegida por GeneradorEller,
+     * dada como x, y y el ordinal de la dirección, y regresa su índice.
      */
-    private void generaLaberinto(int origenX, int origenY) {
-        Pila<int[]> pila = new Pila<>();
-        int[] origen = {origenX, origenY};
-        pila.mete(origen);
-        while (!pila.esVacia()) {
-            int[] actuales = pila.mira();
-            Direccion direccion = obtenerCuartoVacio(actuales[0], actuales[1]);
-            // Si no hay cuarto vacío se empieza a retroceder en la trayectoria.
-            if (direccion == Direccion.NINGUNA)
-                pila.saca();
-            else {
-                // Crea la conexión de puertas con su cuarto adyacente.
-                Cuarto actual = cuartos[actuales[1]][actuales[0]];
-                actual.establecerPuerta(direccion);
-                // Genera un puntaje aleatoria del 1 al 15.
-                int puntaje = generador.nextInt(15) + 1;
-                // Inicizliza el cuarto adyacente y crea la conexión de puertas.
-                int adyacenteX = actuales[0] + direccion.deltaX;
-                int adyacenteY = actuales[1] + direccion.deltaY;
-                int[] adyacentes = {adyacenteX, adyacenteY};
-                Cuarto adyacente = cuartos[adyacenteY][adyacenteX] = new Cuarto();
-                adyacente.establecerPuntaje((byte) puntaje);
-                adyacente.establecerPuerta(direccion.opuesta());
-                // Agrega los elementos a la gráfica.
-                if(!laberinto.contiene(actual))
-                    laberinto.agrega(actual);
-                if(!laberinto.contiene(adyacente))
-                    laberinto.agrega(adyacente);
-                if(!laberinto.sonVecinos(actual, adyacente)) {
-                    int peso = actual.obtenerPuntaje() + adyacente.obtenerPuntaje() + 1;
-                    laberinto.conecta(actual, adyacente, peso);
-                }
-                // Continua el recorrido.
-                pila.mete(adyacentes);
-            }
-        }
+    private int abreSalida(int[] salida) {
+        int indice = cuadricula.indice(salida[0], salida[1]);
+        cuadricula.establecerPuerta(indice, Direccion.values()[salida[2]]);
+        return indice;
     }
 
     /*
-     * Obtiene la dirección de un cuarto nulo el cual es adyacente al cuarto
-     * de la coordenadas dadas x , y.
+     * Verifica si un cuarto es una salida.
      */
-    private Direccion obtenerCuartoVacio(int x, int y) {
-        Lista<Direccion> direcciones = new Lista<>();
-        // Verifica los cuatro cuartos adyacentes posibles.
-        for(Direccion direccion : Direccion.obtenerCardinales()) {
-            int adyacenteX = x + direccion.deltaX;
-            int adyacenteY = y + direccion.deltaY;
-            // Comprueba que las coordenadas esten dentro de los límites del laberinto.
-            if(adyacenteX >= 0 && adyacenteX < ANCHO && adyacenteY >= 0 && adyacenteY < ALTO) {
-                // Se agrega la dirección si el cuarto es nulo.
-                if(cuartos[adyacenteY][adyacenteX] == null)
-                    direcciones.agrega(direccion);
-            }
-        }
-        if(direcciones.esVacia())
-            return Direccion.NINGUNA;
-        // Regresa la dirección de un cuarto nulo de manera aleatoria.
-        return direcciones.get(generador.nextInt(direcciones.getElementos()));
+    private boolean esSalida(int cuarto) {
+        return cuarto == destino || cuarto == origen;
     }
 
     /*
      * Verifica que el laberinto sea válido de acuerdo con los criterios del proyecto:
      * - Solo dos cuartos salida (origen y destino).
      * - Cuartos coherentes.
+     * También determina si el laberinto es perfecto: une los cuartos de cada
+     * puerta al este y al sur, y si una puerta une dos cuartos que ya estaban
+     * conectados hay un ciclo.
      */
-    private void validaLaberinto(byte[][] datos) {
-        for(int y = 0; y < ALTO; y++) {
-            for(int x = 0; x < ANCHO; x++) {
-                Cuarto actual = obtenerCuarto(datos, x, y);
-                // Revisa todos los cuartos adyacentes al cuarto actual.
-                for(Direccion direccion : Direccion.obtenerCardinales()) {
-                    Cuarto adyacente = obtenerCuarto(datos, x + direccion.deltaX, y + direccion.deltaY);
-                    // Si el cuarto actual esta en el borde del laberinto si adyacente es nulo
-                    // esta es una de las características de los cuartos salida.
-                    if(adyacente == null) {
-                        // Verifica si tiene una puerta que no conecta con otro cuarto. 
-                        // Es posible que un cuarto salida tenga dos puertas que no contecten con
-                        // dos cuartos.
-                        if(!esSalida(actual) && actual.obtenerPuertas().contiene(direccion)) {
-                            // Establece el cuarto salida.
-                            if(origen == null)
-                                origen = actual;
-                            else if(destino == null)
-                                destino = actual;
-                            else 
-                                throw new IllegalStateException("Hay más de dos cuartos salida.");
-                        }
-                        continue;
+    private void validaLaberinto() {
+        ConjuntosDisjuntos componentes = new ConjuntosDisjuntos(cuadricula.obtenerTotal());
+        perfecto = true;
+        for(int actual = 0; actual < cuadricula.obtenerTotal(); actual++) {
+            // Revisa todos los cuartos adyacentes al cuarto actual.
+            for(Direccion direccion : Direccion.obtenerCardinales()) {
+                int adyacente = cuadricula.vecino(actual, direccion);
+                boolean puertaActual = cuadricula.tienePuerta(actual, direccion);
+                // Si el cuarto actual esta en el borde del laberinto y no hay adyacente
+                // esta es una de las características de los cuartos salida.
+                if(adyacente == -1) {
+                    // Verifica si tiene una puerta que no conecta con otro cuarto. 
+                    // Es posible que un cuarto salida tenga dos puertas que no contecten con
+                    // dos cuartos.
+                    if(!esSalida(actual) && puertaActual) {
+                        // Establece el cuarto salida.
+                        if(origen == -1)
+                            origen = actual;
+                        else if(destino == -1)
+                            destino = actual;
+                        else 
+                            throw new IllegalStateException("Hay más de dos cuartos salida.");
                     }
-                    // Calcula el peso de la arista.
-                    int peso = actual.obtenerPuntaje() + adyacente.obtenerPuntaje() + 1;
-                    if(!laberinto.contiene(adyacente))
-                        laberinto.agrega(adyacente);
-                    if(!laberinto.contiene(actual))
-                        laberinto.agrega(actual);
-                    boolean contienenPuerta = actual.obtenerPuertas().contiene(direccion)
-			&& adyacente.obtenerPuertas().contiene(direccion.opuesta());
-                    boolean noContienenPuerta = !actual.obtenerPuertas().contiene(direccion)
-			&& !adyacente.obtenerPuertas().contiene(direccion.opuesta());
-                    if(!laberinto.sonVecinos(adyacente, actual) && contienenPuerta)
-                        laberinto.conecta(actual, adyacente, peso);
-                    // Si los cuartos tiene puertas que llevan a una pared lanza una excepción.
-                    if(!contienenPuerta && !noContienenPuerta)
-                        throw new IllegalStateException("Los cuartos del laberinto no son coherentes.");
+                    continue;
                 }
-
+                // Si los cuartos tiene puertas que llevan a una pared lanza una excepción.
+                if(puertaActual != cuadricula.tienePuerta(adyacente, direccion.opuesta()))
+                    throw new IllegalStateException("Los cuartos del laberinto no son coherentes.");
+                if(puertaActual && (direccion == Direccion.ESTE || direccion == Direccion.SUR)
+                   && !componentes.une(actual, adyacente))
+                    perfecto = false;
             }
         }
     }
 
-    /*
-     * Permite acceder a los cuartos del laberinto de forma segura, dado un arreglo de bytes
-     * llamado datos si en el arreglo los indices x, y llevan a un cuarto nulo se inicializa
-     * un nuevo cuarto dado el byte en el arreglo de datos con los índices mencionados.
+    /**
+     * Obtiene la cuadrícula con los cuartos del laberinto.
+     * @return La cuadrícula con los cuartos del laberinto.
      */
-    private Cuarto obtenerCuarto(byte[][] datos ,int x, int y) {
-        Cuarto cuarto = null;
-        if(x >= 0 && x < ANCHO && y >= 0 && y < ALTO) {
-            if(cuartos[y][x] == null)
-                cuartos[y][x] = new Cuarto(datos[y][x]);
-            cuarto = cuartos[y][x];
-        }
-        return cuarto;
+    public Cuadricula obtenerCuadricula() {
+        return cuadricula;
     }
 
     /**
-     * Obtiene la matriz de cuartos del laberinto.
-     * @return La matriz de cuartos del laberinto.
+     * Obtiene el índice del cuarto de origen del laberinto.
+     * @return El índice del cuarto de origen del laberinto.
      */
-    public Cuarto[][] obtenerCuartos() {
-        return cuartos;
+    public int obtenerOrigen() {
+        return origen;
     }
 
     /**
-     * Obtiene el cuarto de origen del laberinto.
-     * @return El cuarto de origen del laberinto.
+     * Obtiene el índice del cuarto de destino del laberinto.
+     * @return El índice del cuarto de destino del laberinto.
      */
-    public Cuarto obtenerOrigen() {
-        return origen;
+    public int obtenerDestino() {
+        return destino;
     }
 
     /**
-     * Obtiene el cuarto de destino del laberinto.
-     * @return El cuarto de destino del laberinto.
+     * Dice si el laberinto es perfecto, es decir, si no tiene ciclos y por lo
+     * tanto hay a lo más una trayectoria entre dos cuartos.
+     * @return <code>true</code> si el laberinto no tiene ciclos,
+     *         <code>false</code> en otro caso.
      */
-    public Cuarto obtenerDestino() {
-        return destino;
+    public boolean esPerfecto() {
+        return perfecto;
     }
 
     /**
@@ -280,14 +441,47 @@ public class Laberinto {
     }
 
     /**
-     * Obtiene la solución del laberinto como una lista de cuartos.
-     * @return Una lista de cuartos que representan la solución del laberinto.
+     * Obtiene la solución del laberinto como una trayectoria compacta que
+     * empieza en el origen.
+     * @return La trayectoria de la solución del laberinto.
      */
-    public Lista<Cuarto> obtenerSolucion() {
-        if (solucion.esVacia()) {
-            for (VerticeGrafica<Cuarto> cuarto : laberinto.dijkstra(origen, destino))
-                solucion.agrega(cuarto.get());
+    public Trayectoria obtenerTrayectoria() {
+        int[] cuartos = obtenerSolucion();
+        Trayectoria trayectoria = new Trayectoria(cuadricula.obtenerX(origen), cuadricula.obtenerY(origen));
+        for(int i = 1; i < cuartos.length; i++) {
+            int diferencia = cuartos[i] - cuartos[i - 1];
+            if(diferencia == ANCHO)
+                trayectoria.agrega(Direccion.SUR);
+            else if(diferencia == -ANCHO)
+                trayectoria.agrega(Direccion.NORTE);
+            else
+                trayectoria.agrega(diferencia > 0 ? Direccion.ESTE : Direccion.OESTE);
         }
+        return trayectoria;
+    }
+
+    /**
+     * Obtiene el peso de la solución del laberinto: la suma de los pesos de
+     * pasar entre cada par de cuartos consecutivos.
+     * @return El peso de la solución del laberinto.
+     */
+    public long obtenerPesoSolucion() {
+        int[] cuartos = obtenerSolucion();
+        long peso = 0;
+        for(int i = 1; i < cuartos.length; i++)
+            peso += cuadricula.obtenerPeso(cuartos[i - 1], cuartos[i]);
+        return peso;
+    }
+
+    /**
+     * Obtiene la solución del laberinto como los índices de sus cuartos,
+     * del origen al destino.
+     * @return Los índices de los cuartos que representan la solución del
+     *         laberinto, o un arreglo vacío si no tiene solución.
+     */
+    public int[] obtenerSolucion() {
+        if (solucion == null)
+            solucion = solucionador.resuelve(cuadricula, origen, destino);
         return solucion;
     }
 }
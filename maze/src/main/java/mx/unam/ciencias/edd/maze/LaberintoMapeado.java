@@ -0,0 +1,299 @@
+package mx.unam.ciencias.edd.maze;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * <p>Clase que permite consultar un archivo de laberinto mapeado en memoria.</p>
+ * <p>Los cuartos no se cargan al heap, se leen del archivo conforme se piden
+ * por sus coordenadas, así que se pueden validar, resolver y dibujar por
+ * regiones laberintos mucho más grandes que la memoria disponible.</p>
+ */
+public class LaberintoMapeado {
+    // Cada segmento mapeado cubre 2^30 cuartos.
+    private static final int BITS_SEGMENTO = 30;
+    private static final long MASCARA_SEGMENTO = (1L << BITS_SEGMENTO) - 1;
+    private final MappedByteBuffer[] segmentos;
+    private final int ANCHO;
+    private final int ALTO;
+    // Índices de los cuartos salida, -1 si no se han encontrado.
+    private long origen;
+    private long destino;
+
+    /**
+     * Mapea el archivo de laberinto dado, en formato "MAZE" o "MAZ2".
+     * @param archivo La ruta del archivo.
+     * @throws IOException Si ocurrió un error al leer el archivo.
+     * @throws IllegalArgumentException Si el formato es inválido o el tamaño del
+     *         archivo no coincide con el encabezado.
+     */
+    public LaberintoMapeado(Path archivo) throws IOException {
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            Encabezado encabezado = Encabezado.lee(canal);
+            ANCHO = encabezado.obtenerAncho();
+            ALTO = encabezado.obtenerAlto();
+            if(ANCHO < 2 || ALTO < 2)
+                throw new IllegalArgumentException("El ancho y el alto deben de ser al menos 2.");
+            long total = encabezado.obtenerTotal();
+            if(canal.size() != encabezado.obtenerLongitud() + total)
+                throw new IllegalArgumentException("Ancho o alto incoherentes.");
+            segmentos = new MappedByteBuffer[(int) ((total + MASCARA_SEGMENTO) >>> BITS_SEGMENTO)];
+            for(int i = 0; i < segmentos.length; i++) {
+                long inicio = (long) i << BITS_SEGMENTO;
+                long tamanio = Math.min(MASCARA_SEGMENTO + 1, total - inicio);
+                segmentos[i] = canal.map(FileChannel.MapMode.READ_ONLY,
+                                         encabezado.obtenerLongitud() + inicio, tamanio);
+            }
+        }
+        origen = destino = -1;
+    }
+
+    /**
+     * Regresa el dato del cuarto con las coordenadas dadas.
+     * @param x La coordenada x.
+     * @param y La coordenada y.
+     * @return El dato del cuarto.
+     */
+    public byte obtenerDato(int x, int y) {
+        long indice = (long) y * ANCHO + x;
+        return segmentos[(int) (indice >>> BITS_SEGMENTO)].get((int) (indice & MASCARA_SEGMENTO));
+    }
+
+    /**
+     * Regresa el cuarto con las coordenadas dadas.
+     * @param x La coordenada x.
+     * @param y La coordenada y.
+     * @return El cuarto, o <code>null</code> si las coordenadas están fuera del laberinto.
+     */
+    public Cuarto obtenerCuarto(int x, int y) {
+        return contiene(x, y) ? new Cuarto(obtenerDato(x, y)) : null;
+    }
+
+    /**
+     * Dice si las coordenadas están dentro del laberinto.
+     * @param x La coordenada x.
+     * @param y La coordenada y.
+     * @return <code>true</code> si las coordenadas son válidas, <code>false</code> en otro caso.
+     */
+    public boolean contiene(int x, int y) {
+        return x >= 0 && x < ANCHO && y >= 0 && y < ALTO;
+    }
+
+    /**
+     * Verifica que el laberinto sea válido con los mismos criterios que
+     * {@link Laberinto}, recorriendo el archivo una sola vez:
+     * - Solo dos cuartos salida (origen y destino).
+     * - Cuartos coherentes.
+     * Además, como {@link #resuelve} solo encuentra la solución de menor
+     * peso si no hay ciclos, el laberinto debe de ser perfecto. Los ciclos se
+     * detectan uniendo los cuartos de cada puerta en conjuntos disjuntos que
+     * solo guardan el renglón anterior y el actual, así que la memoria es
+     * proporcional al ancho: una puerta entre dos cuartos del mismo conjunto
+     * cierra un ciclo. Sin ciclos, el laberinto es conexo si tiene
+     * exactamente una puerta menos que cuartos.
+     * @throws IllegalStateException Si el laberinto no es válido o no es perfecto.
+     */
+    public void valida() throws IllegalStateException {
+        origen = destino = -1;
+        Direccion[] cardinales = Direccion.obtenerCardinales();
+        long puertas = 0;
+        Renglones renglones = new Renglones(ANCHO);
+        for(int y = 0; y < ALTO; y++) {
+            if(y > 0)
+                renglones.siguiente();
+            for(int x = 0; x < ANCHO; x++) {
+                byte actual = obtenerDato(x, y);
+                long indice = (long) y * ANCHO + x;
+                for(Direccion direccion : cardinales) {
+                    int adyacenteX = x + direccion.deltaX;
+                    int adyacenteY = y + direccion.deltaY;
+                    boolean puerta = Cuarto.tienePuerta(actual, direccion);
+                    if(!contiene(adyacenteX, adyacenteY)) {
+                        if(puerta && indice != origen && indice != destino) {
+                            if(origen == -1)
+                                origen = indice;
+                            else if(destino == -1)
+                                destino = indice;
+                            else
+                                throw new IllegalStateException("Hay más de dos cuartos salida.");
+                        }
+                        continue;
+                    }
+                    // La puerta del norte ya se revisó como la del sur del renglón anterior.
+                    if(direccion == Direccion.NORTE && puerta && !renglones.une(x, ANCHO + x))
+                        throw new IllegalStateException("El laberinto mapeado tiene ciclos; resuélvelo sin -m.");
+                    // Basta revisar cada par de cuartos una vez.
+                    if(direccion != Direccion.ESTE && direccion != Direccion.SUR)
+                        continue;
+                    byte adyacente = obtenerDato(adyacenteX, adyacenteY);
+                    if(puerta != Cuarto.tienePuerta(adyacente, direccion.opuesta()))
+                        throw new IllegalStateException("Los cuartos del laberinto no son coherentes.");
+                    if(!puerta)
+                        continue;
+                    puertas++;
+                    if(direccion == Direccion.ESTE && !renglones.une(ANCHO + x, ANCHO + x + 1))
+                        throw new IllegalStateException("El laberinto mapeado tiene ciclos; resuélvelo sin -m.");
+                }
+            }
+        }
+        if(origen == -1 || destino == -1)
+            throw new IllegalStateException("El laberinto no tiene solución.");
+        if(puertas != (long) ANCHO * ALTO - 1)
+            throw new IllegalStateException("El laberinto mapeado tiene cuartos inaccesibles; resuélvelo sin -m.");
+    }
+
+    /*
+     * Clase interna privada con los conjuntos disjuntos de los cuartos del
+     * renglón anterior, en las columnas 0 a ancho - 1, y del actual, en las
+     * columnas ancho a 2 * ancho - 1. Al pasar al siguiente renglón, los
+     * conjuntos del actual se copian al anterior.
+     */
+    private static class Renglones {
+        private final int ancho;
+        private final int[] padres;
+        // Primera columna del renglón con cada raíz, y la raíz de cada columna.
+        private final int[] primeras;
+        private final int[] raices;
+
+        /* Crea los conjuntos para el primer renglón. */
+        private Renglones(int ancho) {
+            if(ancho > Integer.MAX_VALUE / 2 - 8)
+                throw new IllegalStateException("El laberinto es demasiado ancho para validarlo.");
+            this.ancho = ancho;
+            padres = new int[2 * ancho];
+            primeras = new int[2 * ancho];
+            raices = new int[ancho];
+            for(int i = 0; i < padres.length; i++)
+                padres[i] = i;
+        }
+
+        /* Regresa la raíz de un cuarto, comprimiendo la ruta a la mitad. */
+        private int raiz(int i) {
+            while(padres[i] != i) {
+                padres[i] = padres[padres[i]];
+                i = padres[i];
+            }
+            return i;
+        }
+
+        /* Une los conjuntos de dos cuartos; regresa false si ya eran el mismo. */
+        private boolean une(int a, int b) {
+            a = raiz(a);
+            b = raiz(b);
+            if(a == b)
+                return false;
+            padres[b] = a;
+            return true;
+        }
+
+        /* Pasa los conjuntos del renglón actual al anterior y empieza uno nuevo. */
+        private void siguiente() {
+            for(int x = 0; x < ancho; x++) {
+                raices[x] = raiz(ancho + x);
+                primeras[raices[x]] = -1;
+            }
+            for(int x = 0; x < ancho; x++) {
+                if(primeras[raices[x]] == -1)
+                    primeras[raices[x]] = x;
+                padres[x] = primeras[raices[x]];
+                padres[ancho + x] = ancho + x;
+            }
+        }
+    }
+
+    /**
+     * Resuelve el laberinto siguiendo la pared derecha desde el origen; solo
+     * se guarda la trayectoria, con dos bits por paso. Cuando se regresa por
+     * donde se llegó se elimina el último paso, así que el resultado es la
+     * única solución del laberinto perfecto. Se debe llamar después de
+     * {@link #valida}.
+     * @return La trayectoria del origen al destino, o <code>null</code> si el
+     *         destino no es alcanzable.
+     * @throws IllegalStateException Si el laberinto no se ha validado.
+     */
+    public Trayectoria resuelve() throws IllegalStateException {
+        if(origen == -1 || destino == -1)
+            throw new IllegalStateException("El laberinto no se ha validado.");
+        int x = (int) (origen % ANCHO);
+        int y = (int) (origen / ANCHO);
+        int destinoX = (int) (destino % ANCHO);
+        int destinoY = (int) (destino / ANCHO);
+        Trayectoria trayectoria = new Trayectoria(x, y);
+        // Se entra al origen por su puerta exterior.
+        Direccion rumbo = Direccion.NINGUNA;
+        for(Direccion direccion : Direccion.obtenerCardinales()) {
+            if(Cuarto.tienePuerta(obtenerDato(x, y), direccion)
+               && !contiene(x + direccion.deltaX, y + direccion.deltaY)) {
+                rumbo = direccion.opuesta();
+                break;
+            }
+        }
+        // Cada par (cuarto, rumbo) aparece a lo más una vez antes de repetirse el recorrido.
+        long limite = 4 * (long) ANCHO * ALTO;
+        for(long paso = 0; x != destinoX || y != destinoY; paso++) {
+            if(paso > limite)
+                return null;
+            Direccion siguiente = siguienteDireccion(x, y, rumbo);
+            if(siguiente == Direccion.NINGUNA)
+                return null;
+            if(trayectoria.obtenerUltimo() == siguiente.opuesta())
+                trayectoria.eliminaUltimo();
+            else
+                trayectoria.agrega(siguiente);
+            x += siguiente.deltaX;
+            y += siguiente.deltaY;
+            rumbo = siguiente;
+        }
+        return trayectoria;
+    }
+
+    /*
+     * Regresa la dirección por la que sigue la mano derecha: derecha, frente,
+     * izquierda o atrás, la primera con una puerta hacia otro cuarto.
+     */
+    private Direccion siguienteDireccion(int x, int y, Direccion rumbo) {
+        byte dato = obtenerDato(x, y);
+        Direccion direccion = rumbo.derecha();
+        for(int i = 0; i < 4; i++) {
+            if(Cuarto.tienePuerta(dato, direccion) && contiene(x + direccion.deltaX, y + direccion.deltaY))
+                return direccion;
+            direccion = direccion.izquierda();
+        }
+        return Direccion.NINGUNA;
+    }
+
+    /**
+     * Obtiene el índice del cuarto de origen, o -1 si no se ha validado.
+     * @return El índice del cuarto de origen.
+     */
+    public long obtenerOrigen() {
+        return origen;
+    }
+
+    /**
+     * Obtiene el índice del cuarto de destino, o -1 si no se ha validado.
+     * @return El índice del cuarto de destino.
+     */
+    public long obtenerDestino() {
+        return destino;
+    }
+
+    /**
+     * Obtiene el ancho del laberinto.
+     * @return El ancho del laberinto.
+     */
+    public int obtenerAncho() {
+        return ANCHO;
+    }
+
+    /**
+     * Obtiene el alto del laberinto.
+     * @return El alto del laberinto.
+     */
+    public int obtenerAlto() {
+        return ALTO;
+    }
+}
@@ -1,9 +1,16 @@
 package mx.unam.ciencias.edd.maze;
 
+import java.io.FileDescriptor;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
-import mx.unam.ciencias.edd.Lista;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
 
 /**
  * <p>Clase para gestionar la entrada y la salida de bytes.</p>
@@ -11,33 +18,284 @@ import mx.unam.ciencias.edd.Lista;
  */
 public class LectorEscritor {
 
+	// Tamaño de los bloques que se leen del canal.
+	private static final int BLOQUE = 1 << 16;
+	// Tamaño inicial del arreglo de cuartos cuando no se sabe cuántos bytes llegan.
+	private static final int RESERVA_INICIAL = 1 << 20;
+	// Tamaño de los bloques que se escriben en el canal.
+	private static final int BLOQUE_ESCRITURA = 1 << 20;
+
 	/* No es deseable hacer objetos de esta clase. */
 	private LectorEscritor() {};
 
 	/**
-	 * Lee los bytes de la entrada estándar.
+	 * Regresa un canal para leer de la entrada estándar.
+	 * @return Un canal para leer de la entrada estándar.
+	 */
+	public static ReadableByteChannel entrada() {
+		return new FileInputStream(FileDescriptor.in).getChannel();
+	}
+
+	/**
+	 * Regresa un canal para escribir en la salida estándar.
+	 * @return Un canal para escribir en la salida estándar.
+	 */
+	public static WritableByteChannel salida() {
+		return new FileOutputStream(FileDescriptor.out).getChannel();
+	}
+
+	/**
+	 * Lee un laberinto completo de un canal: el encabezado y los bytes de los
+	 * cuartos, que se copian por bloques directamente a la cuadrícula.
+	 * @param canal El canal de donde se lee.
+	 * @return La cuadrícula con los cuartos leídos.
+	 * @throws IOException Si ocurrió un error al leer.
+	 * @throws IllegalArgumentException Si el formato es inválido o la cantidad
+	 *         de cuartos no coincide con el encabezado.
+	 */
+	public static Cuadricula leer(ReadableByteChannel canal) throws IOException {
+		return leer(canal, Encabezado.lee(canal));
+	}
+
+	/**
+	 * Lee los bytes de los cuartos de un canal, dado su encabezado ya leído.
+	 * @param canal El canal de donde se lee.
+	 * @param encabezado El encabezado del laberinto.
+	 * @return La cuadrícula con los cuartos leídos.
+	 * @throws IOException Si ocurrió un error al leer.
+	 * @throws IllegalArgumentException Si la cantidad de cuartos no coincide con el encabezado.
+	 */
+	public static Cuadricula leer(ReadableByteChannel canal, Encabezado encabezado) throws IOException {
+		return leer(canal, encabezado, -1);
+	}
+
+	/**
+	 * Lee un laberinto completo de un archivo. El tamaño del archivo se
+	 * compara con el encabezado antes de reservar la memoria de los cuartos.
+	 * @param archivo La ruta del archivo.
+	 * @return La cuadrícula con los cuartos leídos.
+	 * @throws IOException Si ocurrió un error al leer.
+	 * @throws IllegalArgumentException Si el formato es inválido o la cantidad
+	 *         de cuartos no coincide con el encabezado.
+	 */
+	public static Cuadricula leer(Path archivo) throws IOException {
+		try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+			Encabezado encabezado = Encabezado.lee(canal);
+			return leer(canal, encabezado, canal.size() - canal.position());
+		}
+	}
+
+	/**
+	 * Lee un laberinto que ocupa exactamente la longitud dada de un canal, como
+	 * la carga de una petición. La longitud se compara con el encabezado antes
+	 * de reservar la memoria de los cuartos, que se copian por bloques
+	 * directamente a la cuadrícula. Se consumen exactamente los bytes de la
+	 * longitud aunque el formato sea inválido, así que el canal se puede
+	 * seguir usando.
+	 * @param canal El canal de donde se lee.
+	 * @param longitud El número de bytes del laberinto, con su encabezado.
+	 * @return La cuadrícula con los cuartos leídos.
+	 * @throws IOException Si ocurrió un error al leer.
+	 * @throws IllegalArgumentException Si el formato es inválido, la cantidad
+	 *         de cuartos no coincide con el encabezado o el canal termina antes.
+	 */
+	public static Cuadricula leer(ReadableByteChannel canal, long longitud) throws IOException {
+		CanalAcotado acotado = new CanalAcotado(canal, longitud);
+		try {
+			Encabezado encabezado = Encabezado.lee(acotado);
+			return leer(acotado, encabezado, acotado.restantes);
+		} catch(IllegalArgumentException iae) {
+			acotado.descarta();
+			throw iae;
+		}
+	}
+
+	/*
+	 * Lee los bytes de los cuartos de un canal y revisa que no sobren bytes.
+	 * Si se conocen los bytes que quedan en el canal, o -1 si no, se revisa
+	 * que coincidan con el encabezado antes de reservar la memoria.
+	 */
+	private static Cuadricula leer(ReadableByteChannel canal, Encabezado encabezado,
+	                               long disponibles) throws IOException {
+		if(disponibles != -1 && disponibles != encabezado.obtenerTotal())
+			throw new IllegalArgumentException("Ancho o alto incoherentes.");
+		Cuadricula cuadricula = leeCuartos(canal, encabezado, disponibles);
+		// No debe haber más bytes que cuartos.
+		ByteBuffer buffer = ByteBuffer.allocate(1);
+		if(canal.read(buffer) > 0)
+			throw new IllegalArgumentException("Ancho o alto incoherentes.");
+		return cuadricula;
+	}
+
+	/**
+	 * Lee el siguiente laberinto de un canal con varios laberintos
+	 * concatenados, sin consumir bytes del laberinto que le sigue.
+	 * @param canal El canal de donde se lee.
+	 * @return La cuadrícula con los cuartos leídos, o <code>null</code> si el
+	 *         canal ya terminó.
+	 * @throws IOException Si ocurrió un error al leer.
+	 * @throws IllegalArgumentException Si el formato es inválido o el canal
+	 *         termina a la mitad de un laberinto.
+	 */
+	public static Cuadricula leerSiguiente(ReadableByteChannel canal) throws IOException {
+		Encabezado encabezado = Encabezado.leeSiguiente(canal);
+		return encabezado == null ? null : leeCuartos(canal, encabezado, -1);
+	}
+
+	/*
+	 * Lee exactamente los bytes de los cuartos de un laberinto, dado su
+	 * encabezado. Si no se conocen los bytes disponibles (-1) y el canal es
+	 * un archivo, se toman de su tamaño. Si se conocen, se revisa que alcancen
+	 * antes de reservar la memoria; si no, el arreglo crece conforme llegan
+	 * los bytes, así que un encabezado falso no reserva más memoria que la
+	 * entrada.
+	 */
+	private static Cuadricula leeCuartos(ReadableByteChannel canal, Encabezado encabezado,
+	                                     long disponibles) throws IOException {
+		long total = encabezado.obtenerTotal();
+		if(total > Integer.MAX_VALUE - 8)
+			throw new IllegalArgumentException("Dimensiones inválidas para la cuadrícula.");
+		if(disponibles == -1)
+			disponibles = disponibles(canal);
+		if(disponibles != -1 && disponibles < total)
+			throw new IllegalArgumentException("Ancho o alto incoherentes.");
+		byte[] datos = new byte[(int) (disponibles != -1 ? total : Math.min(total, RESERVA_INICIAL))];
+		ByteBuffer buffer = ByteBuffer.allocateDirect((int) Math.min(BLOQUE, total));
+		int leidos = 0;
+		while(leidos < total) {
+			if(leidos == datos.length)
+				datos = Arrays.copyOf(datos, (int) Math.min(total, 2L * datos.length));
+			buffer.clear();
+			buffer.limit(Math.min(BLOQUE, datos.length - leidos));
+			if(!llena(canal, buffer))
+				throw new IllegalArgumentException("Ancho o alto incoherentes.");
+			buffer.flip();
+			int n = buffer.remaining();
+			buffer.get(datos, leidos, n);
+			leidos += n;
+		}
+		return new Cuadricula(datos, encabezado.obtenerAncho(), encabezado.obtenerAlto());
+	}
+
+	/*
+	 * Regresa los bytes que quedan en un canal si es un archivo regular, o
+	 * -1 si no se conocen, como en una tubería.
+	 */
+	private static long disponibles(ReadableByteChannel canal) {
+		if(!(canal instanceof FileChannel))
+			return -1;
+		FileChannel archivo = (FileChannel) canal;
+		try {
+			long tamanio = archivo.size();
+			long posicion = archivo.position();
+			// Una tubería tiene tamaño cero aunque ya se haya leído el encabezado.
+			return tamanio >= posicion && tamanio > 0 ? tamanio - posicion : -1;
+		} catch(IOException ioe) {
+			return -1;
+		}
+	}
+
+	/**
+	 * Lee del canal hasta llenar el espacio restante del buffer.
+	 * @param canal El canal de donde se lee.
+	 * @param buffer El buffer por llenar.
+	 * @return <code>true</code> si se llenó el buffer, <code>false</code> si
+	 *         el canal terminó antes.
 	 * @throws IOException Si ocurrió un error al leer.
-	 * @return Ls lista de bytes leída.
 	 */
-	public static Lista<Byte> leer() throws IOException {
-		InputStream lector = System.in;
-		Lista<Byte> entrada = new Lista<>();
-		for(byte dato : lector.readAllBytes())
-			entrada.agrega(dato);
-		lector.close();
-		return entrada;
+	public static boolean llena(ReadableByteChannel canal, ByteBuffer buffer) throws IOException {
+		while(buffer.hasRemaining()) {
+			if(canal.read(buffer) < 0)
+				return false;
+		}
+		return true;
 	}
 
 	/**
-	 * Permite escribir los bytes generados en la salida estándar.
-	 * @param datos Los bytes a escribir.
+	 * Escribe un laberinto completo en un canal: el encabezado y los bytes de
+	 * los cuartos, que se copian de la cuadrícula a un buffer directo y se
+	 * escriben en bloques grandes. El buffer no es más grande que el
+	 * laberinto, así que escribir muchos laberintos chicos es barato.
+	 * @param canal El canal donde se escribe.
+	 * @param cuadricula La cuadrícula con los cuartos.
 	 * @throws IOException Si ocurrió un error al escribir.
 	 */
-	public static void escribir(Lista<Byte> datos) throws IOException {
-		OutputStream escritor = System.out;
-		for(byte dato : datos)
-			escritor.write(dato);
-		// Limpia la salida estándar.
-		escritor.flush();
+	public static void escribir(WritableByteChannel canal, Cuadricula cuadricula) throws IOException {
+		byte[] datos = cuadricula.obtenerDatos();
+		Encabezado encabezado = new Encabezado(cuadricula.obtenerAncho(), cuadricula.obtenerAlto());
+		long longitud = encabezado.obtenerLongitud() + (long) datos.length;
+		ByteBuffer buffer = ByteBuffer.allocateDirect((int) Math.min(BLOQUE_ESCRITURA, longitud));
+		encabezado.escribe(buffer);
+		int escritos = 0;
+		while(escritos < datos.length) {
+			int n = Math.min(buffer.remaining(), datos.length - escritos);
+			buffer.put(datos, escritos, n);
+			escritos += n;
+			if(!buffer.hasRemaining())
+				vacia(canal, buffer);
+		}
+		vacia(canal, buffer);
+	}
+
+	/**
+	 * Escribe en el canal todo lo que se ha puesto en el buffer y lo deja
+	 * listo para volverse a llenar.
+	 * @param canal El canal donde se escribe.
+	 * @param buffer El buffer por vaciar.
+	 * @throws IOException Si ocurrió un error al escribir.
+	 */
+	public static void vacia(WritableByteChannel canal, ByteBuffer buffer) throws IOException {
+		buffer.flip();
+		while(buffer.hasRemaining())
+			canal.write(buffer);
+		buffer.clear();
+	}
+
+	/* Canal que deja leer a lo más un número dado de bytes de otro canal. */
+	private static class CanalAcotado implements ReadableByteChannel {
+
+		/* El canal de donde se lee. */
+		private final ReadableByteChannel canal;
+		/* Los bytes que todavía se pueden leer. */
+		private long restantes;
+
+		/* Crea un canal que lee a lo más los bytes dados del canal. */
+		private CanalAcotado(ReadableByteChannel canal, long restantes) {
+			this.canal = canal;
+			this.restantes = restantes;
+		}
+
+		/* Lee sin pasarse de los bytes restantes; al llegar a ellos el canal termina. */
+		@Override public int read(ByteBuffer buffer) throws IOException {
+			if(restantes == 0)
+				return -1;
+			int limite = buffer.limit();
+			if(buffer.remaining() > restantes)
+				buffer.limit(buffer.position() + (int) restantes);
+			int n;
+			try {
+				n = canal.read(buffer);
+			} finally {
+				buffer.limit(limite);
+			}
+			if(n > 0)
+				restantes -= n;
+			return n;
+		}
+
+		/* Descarta los bytes restantes, o hasta que el canal termine. */
+		private void descarta() throws IOException {
+			ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(BLOQUE, Math.max(restantes, 1)));
+			while(read(buffer) >= 0)
+				buffer.clear();
+		}
+
+		/* Dice si el canal está abierto. */
+		@Override public boolean isOpen() {
+			return canal.isOpen();
+		}
+
+		/* No cierra el canal de donde se lee, que sigue en uso. */
+		@Override public void close() {}
 	}
 }
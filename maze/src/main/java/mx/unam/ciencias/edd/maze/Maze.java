@@ -21,12 +21,65 @@ public class Maze {
             Configuracion configuracion = new Configuracion(args);
             switch (configuracion.obtenerAccion()) {
                 case RESUELVE:
-                    Laberinto laberinto = new Laberinto(configuracion.obtenerDatos());
-                    System.out.println(AdministradorLaberinto.dibujaSolucion(laberinto));
+                    Algoritmo algoritmo = configuracion.obtenerAlgoritmo();
+                    Laberinto laberinto = new Laberinto(configuracion.obtenerCuadricula(),
+                                                        algoritmo == null ? null : algoritmo.creaSolucionador());
+                    if(configuracion.obtenerFormato() == FormatoSalida.MOSAICO) {
+                        System.err.print(AdministradorLaberinto.exportaMosaicos(laberinto,
+                                                                                configuracion.obtenerDirectorio(),
+                                                                                configuracion.obtenerHilos()));
+                        break;
+                    }
+                    AdministradorLaberinto.escribeSolucion(laberinto, configuracion.obtenerFormato(),
+                                                           configuracion.obtenerHilos(), System.out);
+                    break;
+                case RESUELVE_LOTE:
+                    System.err.print(AdministradorLaberinto.resuelveLote(configuracion, LectorEscritor.entrada(),
+                                                                         System.out));
+                    break;
+                case SIRVE:
+                    new ServidorLaberinto(configuracion.obtenerPuerto(), configuracion.obtenerHilos(),
+                                          configuracion.obtenerAlgoritmo()).sirve();
+                    break;
+                case COMPARA:
+                    System.out.print(AdministradorLaberinto.compara(configuracion.obtenerCuadricula()));
+                    break;
+                case COMPARA_GENERADORES:
+                    System.out.print(AdministradorLaberinto.comparaGeneradores(configuracion));
+                    break;
+                case RESUELVE_MAPEADO:
+                    if(configuracion.obtenerFormato() == FormatoSalida.MOSAICO) {
+                        if(configuracion.obtenerRegion() != null)
+                            throw new IllegalArgumentException("Los mosaicos se dibujan completos, sin región.");
+                        System.err.print(AdministradorLaberinto.exportaMosaicosMapeado(configuracion.obtenerArchivo(),
+                                                                                       configuracion.obtenerDirectorio(),
+                                                                                       configuracion.obtenerHilos()));
+                        break;
+                    }
+                    if(configuracion.obtenerFormato().esImagen()) {
+                        if(configuracion.obtenerRegion() != null)
+                            throw new IllegalArgumentException("Las imágenes se dibujan completas, sin región.");
+                        AdministradorLaberinto.escribeImagenMapeada(configuracion.obtenerArchivo(),
+                                                                    configuracion.obtenerFormato(),
+                                                                    configuracion.obtenerHilos(), System.out);
+                        break;
+                    }
+                    if(!configuracion.obtenerFormato().esSVG()) {
+                        System.out.write(AdministradorLaberinto.codificaMapeado(configuracion.obtenerArchivo(),
+                                                                                configuracion.obtenerFormato()));
+                        System.out.flush();
+                        break;
+                    }
+                    AdministradorLaberinto.escribeRegion(configuracion.obtenerArchivo(), configuracion.obtenerRegion(),
+                                                         configuracion.obtenerFormato() == FormatoSalida.TRAZO,
+                                                         System.out);
                     break;
                 case GENERA:
-                    AdministradorLaberinto.genera(configuracion);
-                    LectorEscritor.escribir(configuracion.obenerFormatoDatos());
+                    AdministradorLaberinto.escribe(configuracion, LectorEscritor.salida());
+                    break;
+                case GENERA_LOTE:
+                    // La salida estándar puede llevar el lote, así que el resumen va al error estándar.
+                    System.err.print(AdministradorLaberinto.generaLote(configuracion, LectorEscritor.salida()));
                     break;
                 default:
                     break;
@@ -0,0 +1,120 @@
+package mx.unam.ciencias.edd.maze;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+
+/**
+ * <p>Clase que dibuja con svg las paredes de un rectángulo de cuartos,
+ * renglón por renglón.</p>
+ * <p>Cada pared entre dos cuartos es la pared del norte o del oeste de uno de
+ * ellos, así que solo se revisan esas y las del borde del sur y del este.
+ * Las paredes seguidas sobre una misma recta se unen en una sola línea: las
+ * horizontales al recorrer el renglón y las verticales guardando dónde empieza
+ * la pared abierta de cada columna, así que la memoria es proporcional al
+ * ancho.</p>
+ * <p>Cada pared se escribe como una línea o, si se da un {@link TrazoSVG},
+ * como un segmento del trazo, con coordenadas en medios cuartos.</p>
+ */
+class ParedesSVG {
+    // Donde se escriben las líneas.
+    private final Writer escritor;
+    private final FigurasSVG figuras;
+    // El trazo donde se agregan las paredes, o null para usar líneas.
+    private final TrazoSVG trazo;
+    private final int ancho;
+    private final int alto;
+    // Renglón donde empieza la pared vertical abierta de cada columna, o -1.
+    private final int[] inicios;
+
+    /**
+     * Crea un dibujante de paredes para un rectángulo de cuartos.
+     * @param escritor Donde se escriben las líneas.
+     * @param figuras Las figuras con el grosor de las líneas.
+     * @param trazo El trazo donde se agregan las paredes, o <code>null</code>
+     *        para escribir cada pared como una línea.
+     * @param ancho El ancho del rectángulo en cuartos.
+     * @param alto El alto del rectángulo en cuartos.
+     */
+    ParedesSVG(Writer escritor, FigurasSVG figuras, TrazoSVG trazo, int ancho, int alto) {
+        this.escritor = escritor;
+        this.figuras = figuras;
+        this.trazo = trazo;
+        this.ancho = ancho;
+        this.alto = alto;
+        inicios = new int[ancho + 1];
+        Arrays.fill(inicios, -1);
+    }
+
+    /**
+     * Dibuja las paredes de un renglón de cuartos. Los renglones se deben
+     * dibujar en orden; con el último se cierran las paredes verticales.
+     * @param cuartos Los datos de los cuartos.
+     * @param desplazamiento El índice en el arreglo del primer cuarto del renglón.
+     * @param y El renglón dentro del rectángulo.
+     * @throws IOException Si ocurrió un error al escribir.
+     */
+    void dibujaRenglon(byte[] cuartos, int desplazamiento, int y) throws IOException {
+        figuras.establecerColor("black");
+        dibujaHorizontales(cuartos, desplazamiento, y, Direccion.NORTE);
+        for(int x = 0; x <= ancho; x++) {
+            boolean pared = x < ancho
+                ? !Cuarto.tienePuerta(cuartos[desplazamiento + x], Direccion.OESTE)
+                : !Cuarto.tienePuerta(cuartos[desplazamiento + ancho - 1], Direccion.ESTE);
+            if(pared && inicios[x] == -1)
+                inicios[x] = y;
+            else if(!pared && inicios[x] != -1)
+                cierraVertical(x, y);
+        }
+        if(y == alto - 1) {
+            dibujaHorizontales(cuartos, desplazamiento, alto, Direccion.SUR);
+            for(int x = 0; x <= ancho; x++)
+                if(inicios[x] != -1)
+                    cierraVertical(x, alto);
+        }
+    }
+
+    /*
+     * Dibuja las paredes horizontales de la recta y de un renglón, uniendo
+     * las seguidas; la dirección indica de qué lado del renglón están.
+     */
+    private void dibujaHorizontales(byte[] cuartos, int desplazamiento, int y,
+                                    Direccion direccion) throws IOException {
+        int inicio = -1;
+        for(int x = 0; x <= ancho; x++) {
+            boolean pared = x < ancho && !Cuarto.tienePuerta(cuartos[desplazamiento + x], direccion);
+            if(pared && inicio == -1) {
+                inicio = x;
+            } else if(!pared && inicio != -1) {
+                pared(inicio, y, x, y);
+                inicio = -1;
+            }
+        }
+    }
+
+    /*
+     * Dibuja la pared vertical abierta de una columna, que termina antes del
+     * renglón dado.
+     */
+    private void cierraVertical(int x, int y) throws IOException {
+        pared(x, inicios[x], x, y);
+        inicios[x] = -1;
+    }
+
+    /*
+     * Escribe una pared horizontal o vertical dada en esquinas de cuartos.
+     * La línea se alarga la mitad del grosor en cada extremo para que las
+     * paredes luzcan continuas; en el trazo lo hacen los extremos cuadrados.
+     */
+    private void pared(int x1, int y1, int x2, int y2) throws IOException {
+        if(trazo != null) {
+            trazo.segmento(x1 * 2, y1 * 2, x2 * 2, y2 * 2);
+            return;
+        }
+        double ajuste = figuras.obtenerGrosor() / 2;
+        double ajusteX = x1 < x2 ? ajuste : 0;
+        double ajusteY = y1 < y2 ? ajuste : 0;
+        escritor.write(figuras.linea(x1 * 20 + 10 - ajusteX, y1 * 20 + 10 - ajusteY,
+                                     x2 * 20 + 10 + ajusteX, y2 * 20 + 10 + ajusteY));
+    }
+}
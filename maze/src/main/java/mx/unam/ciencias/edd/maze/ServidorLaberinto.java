@@ -0,0 +1,239 @@
+package mx.unam.ciencias.edd.maze;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * <p>Clase para un servidor de laberintos que resuelve laberintos enviados
+ * por un socket TCP local, sin iniciar una máquina virtual por laberinto.</p>
+ * <p>Cada petición es un byte con el tipo de respuesta, la longitud de la
+ * carga como entero de 32 bits con el byte más significativo primero y la
+ * carga, que es un laberinto en formato "MAZE" o "MAZ2". Cada respuesta es un
+ * byte de estado, la longitud de la carga y la carga: la solución pedida si
+ * el estado es {@link #CORRECTO}, codificada como en {@link
+ * AdministradorLaberinto#codificaSolucion}, o el mensaje de error en UTF-8
+ * si no. Las peticiones de una conexión se pueden mandar sin esperar las
+ * respuestas, que llegan en el mismo orden.</p>
+ * <p>Cada conexión se atiende en su propio hilo, así que un cliente inactivo
+ * no detiene a los demás; se atienden a lo más {@link #CONEXIONES_MAXIMAS}
+ * conexiones a la vez y las demás esperan a ser aceptadas. Antes de leer una
+ * carga se reservan sus bytes de un total de {@link #MEMORIA_MAXIMA}, y la
+ * carga se lee directamente a la cuadrícula. El número de hilos acota
+ * cuántas peticiones se resuelven al mismo tiempo; cada turno tiene sus
+ * solucionadores, que reutilizan sus arreglos entre peticiones.</p>
+ */
+public class ServidorLaberinto {
+    /** Tipo de petición cuya respuesta es la solución dibujada en svg. */
+    public static final byte SVG = 's';
+    /** Tipo de petición cuya respuesta es la solución dibujada en svg compacto. */
+    public static final byte TRAZO = 'c';
+    /** Tipo de petición cuya respuesta es la trayectoria de la solución en binario. */
+    public static final byte RUTA = 'r';
+    /** Tipo de petición cuya respuesta es la trayectoria de la solución en texto. */
+    public static final byte TEXTO = 't';
+    /** Estado de una respuesta correcta. */
+    public static final byte CORRECTO = 0;
+    /** Estado de una respuesta con error. */
+    public static final byte ERROR = 1;
+    /** Número máximo de conexiones atendidas al mismo tiempo. */
+    public static final int CONEXIONES_MAXIMAS = 256;
+    /** Número máximo de bytes de carga leídos y sin resolver al mismo tiempo. */
+    public static final int MEMORIA_MAXIMA = 1 << 30;
+    // Longitud máxima de la carga de una petición.
+    private static final int CARGA_MAXIMA = 1 << 28;
+    // Milisegundos que se espera cada lectura de una petición ya empezada.
+    private static final int ESPERA_CARGA = 30000;
+    // Tamaño de los buffers de cada conexión.
+    private static final int BUFFER = 1 << 16;
+    private final int puerto;
+    private final Algoritmo algoritmo;
+    // Turnos para resolver, cada uno con sus solucionadores para laberintos
+    // perfectos y con ciclos; una conexión toma uno por petición.
+    private final BlockingQueue<Solucionador[]> turnos;
+    // Conexiones que todavía se pueden atender.
+    private final Semaphore conexiones;
+    // Bytes de carga que todavía se pueden leer.
+    private final Semaphore memoria;
+
+    /**
+     * Crea un servidor para el puerto dado.
+     * @param puerto El puerto local donde escucha el servidor.
+     * @param hilos El número de peticiones que se resuelven al mismo tiempo.
+     * @param algoritmo El algoritmo con el que se resuelven los laberintos,
+     *        o <code>null</code> para elegirlo según si tienen ciclos.
+     * @throws IllegalArgumentException Si el puerto o el número de hilos son inválidos.
+     */
+    public ServidorLaberinto(int puerto, int hilos, Algoritmo algoritmo) {
+        if(puerto < 0 || puerto > 0xFFFF)
+            throw new IllegalArgumentException("El puerto debe de ser un número del 0 al 65535.");
+        if(hilos < 1)
+            throw new IllegalArgumentException("El número de hilos debe de ser al menos 1.");
+        this.puerto = puerto;
+        this.algoritmo = algoritmo;
+        turnos = new ArrayBlockingQueue<>(hilos);
+        for(int i = 0; i < hilos; i++) {
+            Solucionador perfecto = algoritmo == null ? new SolucionadorArbol() : algoritmo.creaSolucionador();
+            Solucionador ciclos = algoritmo == null ? new SolucionadorDijkstra() : perfecto;
+            turnos.add(new Solucionador[] {perfecto, ciclos});
+        }
+        conexiones = new Semaphore(CONEXIONES_MAXIMAS);
+        // Justo, para que una carga grande no espere para siempre a las chicas.
+        memoria = new Semaphore(MEMORIA_MAXIMA, true);
+    }
+
+    /**
+     * Escucha en la interfaz local y atiende conexiones hasta que se
+     * interrumpe el programa.
+     * @throws IOException Si no se pudo abrir el puerto o aceptar una conexión.
+     */
+    public void sirve() throws IOException {
+        ExecutorService conjunto = Executors.newCachedThreadPool();
+        try (ServerSocket servidor = new ServerSocket(puerto, 0, InetAddress.getLoopbackAddress())) {
+            System.err.println("Escuchando en el puerto " + servidor.getLocalPort());
+            while(true) {
+                conexiones.acquireUninterruptibly();
+                Socket conexion;
+                try {
+                    conexion = servidor.accept();
+                } catch(IOException ioe) {
+                    conexiones.release();
+                    throw ioe;
+                }
+                conjunto.execute(() -> {
+                    try {
+                        atiende(conexion);
+                    } finally {
+                        conexiones.release();
+                    }
+                });
+            }
+        } finally {
+            conjunto.shutdownNow();
+        }
+    }
+
+    /*
+     * Atiende las peticiones de una conexión hasta que el cliente la cierra.
+     * Las respuestas se acumulan y se mandan cuando ya no hay peticiones
+     * leídas pendientes, así que las peticiones en serie comparten escrituras.
+     */
+    private void atiende(Socket conexion) {
+        try (Socket socket = conexion) {
+            socket.setTcpNoDelay(true);
+            DataInputStream entrada = new DataInputStream(new BufferedInputStream(socket.getInputStream(), BUFFER));
+            ReadableByteChannel canal = Channels.newChannel(entrada);
+            DataOutputStream salida = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), BUFFER));
+            while(true) {
+                // Entre peticiones un cliente puede esperar lo que quiera.
+                socket.setSoTimeout(0);
+                int tipo = entrada.read();
+                if(tipo == -1)
+                    break;
+                // Ya empezada una petición, no retiene su conexión ni su memoria.
+                socket.setSoTimeout(ESPERA_CARGA);
+                int longitud = entrada.readInt();
+                if(longitud < 0 || longitud > CARGA_MAXIMA) {
+                    // No se puede saltar la carga, así que se cierra la conexión.
+                    responde(salida, ERROR, "Longitud de carga inválida.".getBytes(StandardCharsets.UTF_8));
+                    salida.flush();
+                    break;
+                }
+                byte[] respuesta;
+                byte estado = CORRECTO;
+                memoria.acquireUninterruptibly(longitud);
+                try {
+                    Cuadricula cuadricula = LectorEscritor.leer(canal, longitud);
+                    respuesta = resuelve((byte) tipo, cuadricula);
+                } catch(RuntimeException e) {
+                    // Cualquier error de una petición se responde; la conexión sigue.
+                    estado = ERROR;
+                    String mensaje = e.getMessage() == null ? e.toString() : e.getMessage();
+                    respuesta = mensaje.getBytes(StandardCharsets.UTF_8);
+                } finally {
+                    memoria.release(longitud);
+                }
+                responde(salida, estado, respuesta);
+                if(entrada.available() == 0)
+                    salida.flush();
+            }
+        } catch(EOFException eofe) {
+            // El cliente cerró la conexión a la mitad de una petición.
+        } catch(IOException ioe) {
+            System.err.println(ioe.getMessage());
+        }
+    }
+
+    /*
+     * Resuelve un laberinto con los solucionadores de un turno y regresa la
+     * respuesta del tipo pedido.
+     */
+    private byte[] resuelve(byte tipo, Cuadricula cuadricula) throws IOException {
+        FormatoSalida formato;
+        switch (tipo) {
+            case SVG:
+                formato = FormatoSalida.SVG;
+                break;
+            case TRAZO:
+                formato = FormatoSalida.TRAZO;
+                break;
+            case RUTA:
+                formato = FormatoSalida.RUTA;
+                break;
+            case TEXTO:
+                formato = FormatoSalida.TEXTO;
+                break;
+            default:
+                throw new IllegalArgumentException("Tipo de petición desconocido.");
+        }
+        Solucionador[] turno = toma();
+        try {
+            Laberinto laberinto = new Laberinto(cuadricula, turno[0], turno[1]);
+            return AdministradorLaberinto.codificaSolucion(laberinto, formato);
+        } finally {
+            turnos.add(turno);
+        }
+    }
+
+    /*
+     * Toma un turno para resolver, esperando a que se libere uno.
+     */
+    private Solucionador[] toma() {
+        boolean interrumpido = false;
+        try {
+            while(true) {
+                try {
+                    return turnos.take();
+                } catch(InterruptedException ie) {
+                    interrumpido = true;
+                }
+            }
+        } finally {
+            if(interrumpido)
+                Thread.currentThread().interrupt();
+        }
+    }
+
+    /*
+     * Escribe una respuesta: el estado, la longitud de la carga y la carga.
+     */
+    private static void responde(DataOutputStream salida, byte estado, byte[] carga) throws IOException {
+        salida.writeByte(estado);
+        salida.writeInt(carga.length);
+        salida.write(carga);
+    }
+}
@@ -0,0 +1,99 @@
+package mx.unam.ciencias.edd.maze;
+
+/**
+ * <p>Interfaz para los algoritmos que resuelven un laberinto.</p>
+ * <p>Un solucionador recibe la cuadrícula de cuartos y los índices de los
+ * cuartos salida, y regresa los índices de los cuartos de una trayectoria de
+ * peso mínimo, donde pasar entre dos cuartos cuesta la suma de sus puntajes
+ * más uno.</p>
+ */
+public interface Solucionador {
+
+    /**
+     * Calcula una trayectoria de peso mínimo entre dos cuartos.
+     * @param cuadricula La cuadrícula de cuartos.
+     * @param origen El índice del cuarto de origen.
+     * @param destino El índice del cuarto de destino.
+     * @return Los índices de los cuartos de la trayectoria, del origen al
+     *         destino, o un arreglo vacío si el destino no es alcanzable.
+     */
+    public int[] resuelve(Cuadricula cuadricula, int origen, int destino);
+
+    /**
+     * Regresa el número de cuartos que se expandieron (se sacaron de la cola
+     * con su distancia definitiva) en la última llamada a {@link #resuelve}.
+     * @return El número de cuartos expandidos.
+     */
+    public int obtenerExpandidos();
+
+    /**
+     * Reconstruye una trayectoria siguiendo los cuartos anteriores desde el destino.
+     * @param anteriores El índice del cuarto anterior de cada cuarto, o -1.
+     * @param origen El índice del cuarto de origen.
+     * @param destino El índice del cuarto de destino.
+     * @return Los índices de los cuartos de la trayectoria, del origen al
+     *         destino, o un arreglo vacío si el destino no tiene anterior.
+     */
+    public static int[] reconstruye(int[] anteriores, int origen, int destino) {
+        if(destino != origen && anteriores[destino] == -1)
+            return new int[0];
+        int longitud = 1;
+        for(int cuarto = destino; cuarto != origen; cuarto = anteriores[cuarto])
+            longitud++;
+        int[] trayectoria = new int[longitud];
+        for(int cuarto = destino; longitud > 0; cuarto = anteriores[cuarto])
+            trayectoria[--longitud] = cuarto;
+        return trayectoria;
+    }
+
+    /**
+     * Reconstruye una trayectoria a partir de las distancias desde el origen,
+     * caminando desde el destino hacia un vecino cuya distancia sea la del
+     * cuarto actual menos el peso de la puerta. Entre varios vecinos así se
+     * escoge el mismo que escogería {@link mx.unam.ciencias.edd.Grafica#dijkstra},
+     * así que ambos regresan la misma trayectoria cuando hay empates.
+     * @param cuadricula La cuadrícula de cuartos.
+     * @param distancias La distancia desde el origen de cada cuarto, o
+     *        {@link Long#MAX_VALUE}; la del destino debe ser definitiva.
+     * @param origen El índice del cuarto de origen.
+     * @param destino El índice del cuarto de destino.
+     * @return Los índices de los cuartos de la trayectoria, del origen al
+     *         destino, o un arreglo vacío si el destino no es alcanzable.
+     */
+    public static int[] reconstruye(Cuadricula cuadricula, long[] distancias, int origen, int destino) {
+        if(distancias[destino] == Long.MAX_VALUE)
+            return new int[0];
+        int longitud = 1;
+        for(int cuarto = destino; cuarto != origen; cuarto = anterior(cuadricula, distancias, cuarto))
+            longitud++;
+        int[] trayectoria = new int[longitud];
+        for(int cuarto = destino; longitud > 0; cuarto = anterior(cuadricula, distancias, cuarto))
+            trayectoria[--longitud] = cuarto;
+        return trayectoria;
+    }
+
+    /*
+     * Regresa el vecino anterior a un cuarto en la trayectoria. La gráfica
+     * guarda los vecinos en un diccionario de 128 listas que recorre en orden
+     * de lista (el índice del vecino módulo 128) y, dentro de cada lista, en
+     * orden de inserción: norte, oeste, este y sur. Se escoge el primero en
+     * ese orden.
+     */
+    private static int anterior(Cuadricula cuadricula, long[] distancias, int cuarto) {
+        Direccion[] orden = { Direccion.NORTE, Direccion.OESTE, Direccion.ESTE, Direccion.SUR };
+        int anterior = -1;
+        int mejor = Integer.MAX_VALUE;
+        for(int i = 0; i < orden.length; i++) {
+            int vecino = cuadricula.conexion(cuarto, orden[i]);
+            if(vecino == -1 || distancias[vecino] == Long.MAX_VALUE
+               || distancias[vecino] != distancias[cuarto] - cuadricula.obtenerPeso(cuarto, vecino))
+                continue;
+            int llave = (vecino & 127) * orden.length + i;
+            if(llave < mejor) {
+                mejor = llave;
+                anterior = vecino;
+            }
+        }
+        return anterior;
+    }
+}
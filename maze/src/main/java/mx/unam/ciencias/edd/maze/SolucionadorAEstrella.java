@@ -0,0 +1,51 @@
+package mx.unam.ciencias.edd.maze;
+
+import mx.unam.ciencias.edd.ColaIndexada;
+import mx.unam.ciencias.edd.MonticuloIndexado;
+
+/**
+ * <p>Clase que resuelve un laberinto con el algoritmo A*.</p>
+ * <p>Los cuartos se ordenan por su distancia desde el origen más la distancia
+ * Manhattan al destino. Como pasar entre dos cuartos cuesta al menos uno, la
+ * distancia Manhattan nunca sobrestima y además es consistente, así que la
+ * trayectoria es de peso mínimo, ningún cuarto se expande dos veces y la
+ * búsqueda termina en cuanto se expande el destino.</p>
+ */
+public class SolucionadorAEstrella extends SolucionadorDistancias {
+    // Distancia desde el origen más la estimación hasta el destino; crece con las distancias.
+    private long[] estimaciones;
+    // Coordenadas del destino de la solución actual.
+    private int destinoX;
+    private int destinoY;
+
+    /**
+     * Crea un montículo indexado ordenado por las estimaciones.
+     * @param distancias El arreglo de distancias desde el origen.
+     * @return Un montículo vacío para los cuartos.
+     */
+    @Override protected ColaIndexada creaCola(long[] distancias) {
+        estimaciones = new long[distancias.length];
+        return new MonticuloIndexado(estimaciones);
+    }
+
+    /**
+     * Guarda las coordenadas del destino.
+     * @param cuadricula La cuadrícula de cuartos.
+     * @param destino El índice del cuarto de destino.
+     */
+    @Override protected void prepara(Cuadricula cuadricula, int destino) {
+        destinoX = cuadricula.obtenerX(destino);
+        destinoY = cuadricula.obtenerY(destino);
+    }
+
+    /**
+     * Actualiza la estimación de un cuarto con su nueva distancia.
+     * @param cuadricula La cuadrícula de cuartos.
+     * @param cuarto El índice del cuarto.
+     * @param distancia La nueva distancia del cuarto desde el origen.
+     */
+    @Override protected void actualiza(Cuadricula cuadricula, int cuarto, long distancia) {
+        estimaciones[cuarto] = distancia + Math.abs(cuadricula.obtenerX(cuarto) - destinoX)
+            + Math.abs(cuadricula.obtenerY(cuarto) - destinoY);
+    }
+}
@@ -0,0 +1,66 @@
+package mx.unam.ciencias.edd.maze;
+
+import java.util.Arrays;
+
+/**
+ * <p>Clase que resuelve un laberinto perfecto (sin ciclos) en tiempo lineal.</p>
+ * <p>En un laberinto sin ciclos hay a lo más una trayectoria entre dos cuartos,
+ * así que no hace falta comparar pesos: basta un recorrido en profundidad
+ * iterativo desde el origen que guarda el cuarto anterior de cada cuarto,
+ * sin montículo. Si el laberinto tiene ciclos la trayectoria es válida pero
+ * no necesariamente la de menor peso.</p>
+ */
+public class SolucionadorArbol implements Solucionador {
+    // Las direcciones en las que se buscan vecinos.
+    private static final Direccion[] CARDINALES = Direccion.obtenerCardinales();
+    // Cuartos expandidos en la última solución.
+    private int expandidos;
+    // Arreglos de trabajo, se reutilizan mientras alcancen para la cuadrícula.
+    private int[] anteriores;
+    private int[] pila;
+
+    /**
+     * Calcula la trayectoria entre dos cuartos de un laberinto sin ciclos.
+     * @param cuadricula La cuadrícula de cuartos.
+     * @param origen El índice del cuarto de origen.
+     * @param destino El índice del cuarto de destino.
+     * @return Los índices de los cuartos de la trayectoria, del origen al
+     *         destino, o un arreglo vacío si el destino no es alcanzable.
+     */
+    @Override public int[] resuelve(Cuadricula cuadricula, int origen, int destino) {
+        int n = cuadricula.obtenerTotal();
+        if(anteriores == null || anteriores.length < n) {
+            anteriores = new int[n];
+            // Cada cuarto entra a la pila a lo más una vez.
+            pila = new int[n];
+        }
+        Arrays.fill(anteriores, 0, n, -1);
+        int tope = 0;
+        expandidos = 0;
+        anteriores[origen] = origen;
+        pila[tope++] = origen;
+        while(tope > 0) {
+            int actual = pila[--tope];
+            expandidos++;
+            if(actual == destino)
+                break;
+            for(Direccion direccion : CARDINALES) {
+                int vecino = cuadricula.conexion(actual, direccion);
+                if(vecino != -1 && anteriores[vecino] == -1) {
+                    anteriores[vecino] = actual;
+                    pila[tope++] = vecino;
+                }
+            }
+        }
+        anteriores[origen] = -1;
+        return Solucionador.reconstruye(anteriores, origen, destino);
+    }
+
+    /**
+     * Regresa el número de cuartos expandidos en la última solución.
+     * @return El número de cuartos expandidos.
+     */
+    @Override public int obtenerExpandidos() {
+        return expandidos;
+    }
+}
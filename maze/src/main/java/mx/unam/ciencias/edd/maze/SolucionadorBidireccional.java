@@ -0,0 +1,127 @@
+package mx.unam.ciencias.edd.maze;
+
+import java.util.Arrays;
+import mx.unam.ciencias.edd.MonticuloIndexado;
+
+/**
+ * <p>Clase que resuelve un laberinto con el algoritmo de Dijkstra bidireccional.</p>
+ * <p>Se busca a la vez desde el origen y desde el destino, expandiendo en cada
+ * paso el lado cuyo cuarto mínimo está más cerca. Cada vez que un lado
+ * relaja una puerta hacia un cuarto que el otro lado ya alcanzó se tiene una
+ * trayectoria candidata; la búsqueda termina cuando la suma de las distancias
+ * mínimas de ambos montículos es al menos el peso de la mejor candidata,
+ * porque ninguna trayectoria restante puede ser más ligera.</p>
+ */
+public class SolucionadorBidireccional implements Solucionador {
+    // Las direcciones en las que se buscan vecinos.
+    private static final Direccion[] CARDINALES = Direccion.obtenerCardinales();
+    // Los lados de la búsqueda.
+    private static final int ORIGEN = 0;
+    private static final int DESTINO = 1;
+    // Distancias, anteriores y montículos de cada lado, se reutilizan mientras alcancen para la cuadrícula.
+    private long[][] distancias;
+    private int[][] anteriores;
+    private MonticuloIndexado[] monticulos;
+    // Peso de la mejor trayectoria encontrada y la puerta donde se encuentran los lados.
+    private long mejor;
+    private int[] encuentro = {-1, -1};
+    // Cuartos expandidos en la última solución.
+    private int expandidos;
+
+    /**
+     * Calcula una trayectoria de peso mínimo entre dos cuartos.
+     * @param cuadricula La cuadrícula de cuartos.
+     * @param origen El índice del cuarto de origen.
+     * @param destino El índice del cuarto de destino.
+     * @return Los índices de los cuartos de la trayectoria, del origen al
+     *         destino, o un arreglo vacío si el destino no es alcanzable.
+     */
+    @Override public int[] resuelve(Cuadricula cuadricula, int origen, int destino) {
+        expandidos = 0;
+        if(origen == destino)
+            return new int[] {origen};
+        int n = cuadricula.obtenerTotal();
+        if(distancias == null || distancias[ORIGEN].length < n) {
+            distancias = new long[2][n];
+            anteriores = new int[2][n];
+            monticulos = new MonticuloIndexado[] {
+                new MonticuloIndexado(distancias[ORIGEN]),
+                new MonticuloIndexado(distancias[DESTINO])
+            };
+        }
+        int[] inicios = {origen, destino};
+        for(int lado = ORIGEN; lado <= DESTINO; lado++) {
+            // Al salir antes de vaciarlos quedan cuartos de la solución anterior.
+            monticulos[lado].limpia();
+            Arrays.fill(distancias[lado], 0, n, Long.MAX_VALUE);
+            Arrays.fill(anteriores[lado], 0, n, -1);
+            distancias[lado][inicios[lado]] = 0;
+            monticulos[lado].agrega(inicios[lado]);
+        }
+        mejor = Long.MAX_VALUE;
+        encuentro[ORIGEN] = -1;
+        encuentro[DESTINO] = -1;
+        while(!monticulos[ORIGEN].esVacia() && !monticulos[DESTINO].esVacia()) {
+            long minimoOrigen = distancias[ORIGEN][monticulos[ORIGEN].minimo()];
+            long minimoDestino = distancias[DESTINO][monticulos[DESTINO].minimo()];
+            if(minimoOrigen + minimoDestino >= mejor)
+                break;
+            expande(cuadricula, minimoOrigen <= minimoDestino ? ORIGEN : DESTINO);
+        }
+        return reconstruye(origen, destino);
+    }
+
+    /*
+     * Expande el cuarto mínimo de un lado, actualizando la mejor trayectoria
+     * si alguna puerta lleva a un cuarto alcanzado por el otro lado.
+     */
+    private void expande(Cuadricula cuadricula, int lado) {
+        int otro = 1 - lado;
+        long[] propias = distancias[lado];
+        int actual = monticulos[lado].elimina();
+        expandidos++;
+        for(Direccion direccion : CARDINALES) {
+            int vecino = cuadricula.conexion(actual, direccion);
+            if(vecino == -1)
+                continue;
+            long distancia = propias[actual] + cuadricula.obtenerPeso(actual, vecino);
+            if(distancia < propias[vecino]) {
+                propias[vecino] = distancia;
+                anteriores[lado][vecino] = actual;
+                monticulos[lado].reordena(vecino);
+            }
+            if(distancias[otro][vecino] != Long.MAX_VALUE
+               && distancia + distancias[otro][vecino] < mejor) {
+                mejor = distancia + distancias[otro][vecino];
+                encuentro[lado] = actual;
+                encuentro[otro] = vecino;
+            }
+        }
+    }
+
+    /*
+     * Une la trayectoria del origen a su cuarto del encuentro con la del
+     * cuarto del encuentro del otro lado al destino.
+     */
+    private int[] reconstruye(int origen, int destino) {
+        if(mejor == Long.MAX_VALUE)
+            return new int[0];
+        int[] inicio = Solucionador.reconstruye(anteriores[ORIGEN], origen, encuentro[ORIGEN]);
+        int longitud = inicio.length;
+        for(int cuarto = encuentro[DESTINO]; cuarto != -1; cuarto = anteriores[DESTINO][cuarto])
+            longitud++;
+        int[] trayectoria = Arrays.copyOf(inicio, longitud);
+        int i = inicio.length;
+        for(int cuarto = encuentro[DESTINO]; cuarto != -1; cuarto = anteriores[DESTINO][cuarto])
+            trayectoria[i++] = cuarto;
+        return trayectoria;
+    }
+
+    /**
+     * Regresa el número de cuartos expandidos en la última solución.
+     * @return El número de cuartos expandidos.
+     */
+    @Override public int obtenerExpandidos() {
+        return expandidos;
+    }
+}
@@ -0,0 +1,24 @@
+package mx.unam.ciencias.edd.maze;
+
+import mx.unam.ciencias.edd.ColaCubetas;
+import mx.unam.ciencias.edd.ColaIndexada;
+
+/**
+ * <p>Clase que resuelve un laberinto con el algoritmo de Dial: Dijkstra con
+ * una cola de cubetas en lugar de un montículo.</p>
+ * <p>Los pesos entre cuartos son enteros entre 1 y {@link
+ * Cuadricula#PESO_MAXIMO}, así que basta con {@link Cuadricula#PESO_MAXIMO}
+ * + 1 cubetas circulares y cada operación de la cola cuesta tiempo constante;
+ * el tiempo total es lineal en el número de cuartos.</p>
+ */
+public class SolucionadorCubetas extends SolucionadorDistancias {
+
+    /**
+     * Crea una cola de cubetas ordenada por las distancias.
+     * @param distancias El arreglo de distancias desde el origen.
+     * @return Una cola vacía para los cuartos.
+     */
+    @Override protected ColaIndexada creaCola(long[] distancias) {
+        return new ColaCubetas(distancias, Cuadricula.PESO_MAXIMO);
+    }
+}
@@ -0,0 +1,24 @@
+package mx.unam.ciencias.edd.maze;
+
+import mx.unam.ciencias.edd.ColaIndexada;
+import mx.unam.ciencias.edd.MonticuloIndexado;
+
+/**
+ * <p>Clase que resuelve un laberinto con el algoritmo de Dijkstra directamente
+ * sobre la cuadrícula.</p>
+ * <p>Los cuartos se identifican por su índice; las distancias se guardan en
+ * un arreglo de primitivos y se usa un montículo indexado, así que no se crea
+ * ningún objeto por cuarto. La trayectoria se reconstruye con las distancias,
+ * desempatando como {@link mx.unam.ciencias.edd.Grafica#dijkstra}.</p>
+ */
+public class SolucionadorDijkstra extends SolucionadorDistancias {
+
+    /**
+     * Crea un montículo indexado ordenado por las distancias.
+     * @param distancias El arreglo de distancias desde el origen.
+     * @return Un montículo vacío para los cuartos.
+     */
+    @Override protected ColaIndexada creaCola(long[] distancias) {
+        return new MonticuloIndexado(distancias);
+    }
+}
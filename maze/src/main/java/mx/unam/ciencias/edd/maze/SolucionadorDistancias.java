@@ -0,0 +1,98 @@
+package mx.unam.ciencias.edd.maze;
+
+import java.util.Arrays;
+import mx.unam.ciencias.edd.ColaIndexada;
+
+/**
+ * <p>Clase abstracta para los solucionadores que, como Dijkstra, sacan cuartos
+ * de una cola de prioridades y relajan sus puertas.</p>
+ * <p>Las subclases solo deciden la cola y con qué prioridad se ordenan los
+ * cuartos; el ciclo de relajación y la reconstrucción de la trayectoria a
+ * partir de las distancias son comunes. Las distancias y la cola se
+ * reutilizan mientras alcancen para la cuadrícula.</p>
+ */
+public abstract class SolucionadorDistancias implements Solucionador {
+    // Las direcciones en las que se buscan vecinos.
+    private static final Direccion[] CARDINALES = Direccion.obtenerCardinales();
+    // Cuartos expandidos en la última solución.
+    private int expandidos;
+    // Distancias desde el origen y cola, se reutilizan mientras alcancen para la cuadrícula.
+    private long[] distancias;
+    private ColaIndexada cola;
+
+    /**
+     * Calcula una trayectoria de peso mínimo entre dos cuartos.
+     * @param cuadricula La cuadrícula de cuartos.
+     * @param origen El índice del cuarto de origen.
+     * @param destino El índice del cuarto de destino.
+     * @return Los índices de los cuartos de la trayectoria, del origen al
+     *         destino, o un arreglo vacío si el destino no es alcanzable.
+     */
+    @Override public int[] resuelve(Cuadricula cuadricula, int origen, int destino) {
+        int n = cuadricula.obtenerTotal();
+        if(distancias == null || distancias.length < n) {
+            distancias = new long[n];
+            cola = creaCola(distancias);
+        }
+        // Al salir antes de vaciarla pueden quedar cuartos de la solución anterior.
+        cola.limpia();
+        Arrays.fill(distancias, 0, n, Long.MAX_VALUE);
+        prepara(cuadricula, destino);
+        expandidos = 0;
+        distancias[origen] = 0;
+        actualiza(cuadricula, origen, 0);
+        cola.agrega(origen);
+        while(!cola.esVacia()) {
+            int actual = cola.elimina();
+            expandidos++;
+            // La distancia del destino ya es definitiva.
+            if(actual == destino)
+                break;
+            for(Direccion direccion : CARDINALES) {
+                int vecino = cuadricula.conexion(actual, direccion);
+                if(vecino == -1)
+                    continue;
+                long distancia = distancias[actual] + cuadricula.obtenerPeso(actual, vecino);
+                if(distancia < distancias[vecino]) {
+                    distancias[vecino] = distancia;
+                    actualiza(cuadricula, vecino, distancia);
+                    cola.reordena(vecino);
+                }
+            }
+        }
+        return Solucionador.reconstruye(cuadricula, distancias, origen, destino);
+    }
+
+    /**
+     * Crea la cola de los cuartos. Se llama cada vez que crece el arreglo de
+     * distancias.
+     * @param distancias El arreglo de distancias desde el origen.
+     * @return Una cola vacía para los cuartos de 0 a
+     *         <code>distancias.length</code> - 1.
+     */
+    protected abstract ColaIndexada creaCola(long[] distancias);
+
+    /**
+     * Prepara una solución antes de agregar el origen. Por omisión no hace nada.
+     * @param cuadricula La cuadrícula de cuartos.
+     * @param destino El índice del cuarto de destino.
+     */
+    protected void prepara(Cuadricula cuadricula, int destino) {}
+
+    /**
+     * Avisa que bajó la distancia de un cuarto, antes de reordenarlo en la
+     * cola. Por omisión no hace nada.
+     * @param cuadricula La cuadrícula de cuartos.
+     * @param cuarto El índice del cuarto.
+     * @param distancia La nueva distancia del cuarto desde el origen.
+     */
+    protected void actualiza(Cuadricula cuadricula, int cuarto, long distancia) {}
+
+    /**
+     * Regresa el número de cuartos expandidos en la última solución.
+     * @return El número de cuartos expandidos.
+     */
+    @Override public int obtenerExpandidos() {
+        return expandidos;
+    }
+}
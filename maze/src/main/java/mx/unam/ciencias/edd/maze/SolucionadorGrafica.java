@@ -0,0 +1,62 @@
+package mx.unam.ciencias.edd.maze;
+
+import mx.unam.ciencias.edd.Grafica;
+import mx.unam.ciencias.edd.Lista;
+import mx.unam.ciencias.edd.VerticeGrafica;
+
+/**
+ * <p>Clase que resuelve un laberinto construyendo una {@link Grafica} de sus
+ * cuartos y usando su algoritmo de Dijkstra.</p>
+ * <p>Es la forma original de resolver los laberintos; se conserva para
+ * comparar contra los solucionadores que trabajan sobre la cuadrícula.</p>
+ */
+public class SolucionadorGrafica implements Solucionador {
+    // Cuartos expandidos en la última solución.
+    private int expandidos;
+
+    /**
+     * Calcula una trayectoria de peso mínimo entre dos cuartos.
+     * @param cuadricula La cuadrícula de cuartos.
+     * @param origen El índice del cuarto de origen.
+     * @param destino El índice del cuarto de destino.
+     * @return Los índices de los cuartos de la trayectoria, del origen al
+     *         destino, o un arreglo vacío si el destino no es alcanzable.
+     */
+    @Override public int[] resuelve(Cuadricula cuadricula, int origen, int destino) {
+        // La gráfica no expone cuántos vértices expande; se reporta el total como cota.
+        expandidos = cuadricula.obtenerTotal();
+        Lista<VerticeGrafica<Integer>> trayectoria = construyeGrafica(cuadricula).dijkstra(origen, destino);
+        int[] solucion = new int[trayectoria.getElementos()];
+        int i = 0;
+        for (VerticeGrafica<Integer> cuarto : trayectoria)
+            solucion[i++] = cuarto.get();
+        return solucion;
+    }
+
+    /**
+     * Regresa el número de cuartos expandidos en la última solución.
+     * @return El número de cuartos expandidos.
+     */
+    @Override public int obtenerExpandidos() {
+        return expandidos;
+    }
+
+    /*
+     * Construye la gráfica de los cuartos, donde dos cuartos son vecinos si
+     * comparten una puerta. Solo se revisan las puertas al este y al sur para
+     * no repetir aristas.
+     */
+    private Grafica<Integer> construyeGrafica(Cuadricula cuadricula) {
+        Grafica<Integer> grafica = new Grafica<>();
+        for(int cuarto = 0; cuarto < cuadricula.obtenerTotal(); cuarto++)
+            grafica.agrega(cuarto);
+        for(int actual = 0; actual < cuadricula.obtenerTotal(); actual++) {
+            for(Direccion direccion : new Direccion[] {Direccion.ESTE, Direccion.SUR}) {
+                int adyacente = cuadricula.conexion(actual, direccion);
+                if(adyacente != -1)
+                    grafica.conecta(actual, adyacente, cuadricula.obtenerPeso(actual, adyacente));
+            }
+        }
+        return grafica;
+    }
+}
@@ -0,0 +1,45 @@
+package mx.unam.ciencias.edd.maze;
+
+/**
+ * Enumeración para las fuentes de números pseudoaleatorios de la generación.
+ */
+public enum TipoAleatorio {
+    /**
+     * {@link java.util.Random}, con la que se obtienen los laberintos de siempre.
+     */
+    LEGADO,
+    /**
+     * xoroshiro128++, más rápida y sin operaciones atómicas.
+     */
+    RAPIDO;
+
+    /**
+     * Obtiene el tipo de fuente con el nombre dado, sin importar mayúsculas.
+     * @param nombre El nombre del tipo de fuente.
+     * @return El tipo de fuente con el nombre dado.
+     * @throws IllegalArgumentException Si no hay un tipo de fuente con ese nombre.
+     */
+    public static TipoAleatorio obtenerTipo(String nombre) {
+        for(TipoAleatorio tipo : values())
+            if(tipo.obtenerNombre().equals(nombre.toLowerCase()))
+                return tipo;
+        throw new IllegalArgumentException("Generador aleatorio desconocido: " + nombre);
+    }
+
+    /**
+     * Obtiene el nombre del tipo de fuente como se usa en la línea de comandos.
+     * @return El nombre del tipo de fuente.
+     */
+    public String obtenerNombre() {
+        return name().toLowerCase();
+    }
+
+    /**
+     * Crea una fuente de este tipo con la semilla dada.
+     * @param semilla La semilla.
+     * @return Una fuente nueva.
+     */
+    public Aleatorio crea(long semilla) {
+        return this == RAPIDO ? new AleatorioRapido(semilla) : new AleatorioLegado(semilla);
+    }
+}
@@ -0,0 +1,79 @@
+package mx.unam.ciencias.edd.maze;
+
+/**
+ * Enumeración para los algoritmos con los que se puede generar un laberinto.
+ */
+public enum TipoGenerador {
+    /**
+     * Recorrido dfs-random, el generador original.
+     */
+    DFS,
+    /**
+     * Kruskal aleatorio con conjuntos disjuntos.
+     */
+    KRUSKAL,
+    /**
+     * Prim aleatorio con un montículo de la frontera.
+     */
+    PRIM,
+    /**
+     * Caminatas aleatorias sin ciclos de Wilson.
+     */
+    WILSON,
+    /**
+     * Sidewinder, renglón por renglón.
+     */
+    SIDEWINDER,
+    /**
+     * Árbol binario, cada cuarto abre al norte o al este.
+     */
+    BINARIO,
+    /**
+     * Eller, renglón por renglón con memoria proporcional al ancho.
+     */
+    ELLER;
+
+    /**
+     * Obtiene el tipo de generador con el nombre dado, sin importar mayúsculas.
+     * @param nombre El nombre del tipo de generador.
+     * @return El tipo de generador con el nombre dado.
+     * @throws IllegalArgumentException Si no hay un tipo de generador con ese nombre.
+     */
+    public static TipoGenerador obtenerTipo(String nombre) {
+        for(TipoGenerador tipo : values())
+            if(tipo.obtenerNombre().equals(nombre.toLowerCase()))
+                return tipo;
+        throw new IllegalArgumentException("Generador desconocido: " + nombre);
+    }
+
+    /**
+     * Obtiene el nombre del tipo de generador como se usa en la línea de comandos.
+     * @return El nombre del tipo de generador.
+     */
+    public String obtenerNombre() {
+        return name().toLowerCase();
+    }
+
+    /**
+     * Crea un generador de este tipo.
+     * @return Un generador nuevo.
+     */
+    public Generador creaGenerador() {
+        switch (this) {
+            case KRUSKAL:
+                return new GeneradorKruskal();
+            case PRIM:
+                return new GeneradorPrim();
+            case WILSON:
+                return new GeneradorWilson();
+            case SIDEWINDER:
+                return new GeneradorSidewinder();
+            case BINARIO:
+                return new GeneradorBinario();
+            case ELLER:
+                return new GeneradorEller();
+            default:
+                return new GeneradorDFS();
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package mx.unam.ciencias.edd.maze;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * <p>Clase que representa una trayectoria en un laberinto de forma compacta.</p>
+ * <p>Se guarda la coordenada del cuarto inicial y cada paso como una de las
+ * cuatro direcciones cardinales en dos bits, así que un camino de millones de
+ * cuartos ocupa unos cuantos megabytes.</p>
+ * <p>En formato binario una trayectoria es "RUTA", la coordenada x y la
+ * coordenada y del cuarto inicial en enteros de 32 bits, el peso y el número
+ * de pasos en enteros de 64 bits, todos con el byte más significativo
+ * primero, y después los pasos, cuatro por byte empezando por los bits menos
+ * significativos, con los códigos 0 norte, 1 sur, 2 este y 3 oeste. En
+ * formato de texto es un renglón con x, y y el peso, y otro con una letra
+ * por paso: N, S, E u O.</p>
+ */
+public class Trayectoria {
+    /** Formato binario de una trayectoria. */
+    public static final String FORMATO = "RUTA";
+    // Bytes del encabezado binario.
+    private static final int ENCABEZADO = 28;
+    // Letras de los pasos en el orden de su código de dos bits.
+    private static final byte[] LETRAS = {'N', 'S', 'E', 'O'};
+    // Las direcciones en el orden de su código de dos bits.
+    private static final Direccion[] CARDINALES = Direccion.obtenerCardinales();
+    // Cada long guarda 32 pasos.
+    private long[] pasos;
+    private long longitud;
+    private final int inicioX;
+    private final int inicioY;
+
+    /**
+     * Crea una trayectoria vacía que empieza en el cuarto dado.
+     * @param x La coordenada x del cuarto inicial.
+     * @param y La coordenada y del cuarto inicial.
+     */
+    public Trayectoria(int x, int y) {
+        inicioX = x;
+        inicioY = y;
+        pasos = new long[16];
+    }
+
+    /*
+     * Regresa el código de dos bits de una dirección cardinal.
+     */
+    private static int codigo(Direccion direccion) {
+        switch (direccion) {
+            case NORTE:
+                return 0;
+            case SUR:
+                return 1;
+            case ESTE:
+                return 2;
+            case OESTE:
+                return 3;
+            default:
+                throw new IllegalArgumentException("La dirección debe ser cardinal.");
+        }
+    }
+
+    /**
+     * Agrega un paso al final de la trayectoria.
+     * @param direccion La dirección del paso.
+     * @throws IllegalArgumentException Si la dirección no es cardinal.
+     */
+    public void agrega(Direccion direccion) {
+        int bloque = (int) (longitud >>> 5);
+        if(bloque == pasos.length)
+            pasos = Arrays.copyOf(pasos, pasos.length * 2);
+        int desplazamiento = (int) (longitud & 31) * 2;
+        pasos[bloque] &= ~(3L << desplazamiento);
+        pasos[bloque] |= (long) codigo(direccion) << desplazamiento;
+        longitud++;
+    }
+
+    /**
+     * Elimina el último paso de la trayectoria y lo regresa.
+     * @return La dirección del último paso.
+     * @throws IllegalStateException Si la trayectoria no tiene pasos.
+     */
+    public Direccion eliminaUltimo() {
+        if(longitud == 0)
+            throw new IllegalStateException("La trayectoria no tiene pasos.");
+        Direccion ultimo = obtenerPaso(longitud - 1);
+        longitud--;
+        return ultimo;
+    }
+
+    /**
+     * Regresa el último paso de la trayectoria.
+     * @return La dirección del último paso, o NINGUNA si no tiene pasos.
+     */
+    public Direccion obtenerUltimo() {
+        return longitud == 0 ? Direccion.NINGUNA : obtenerPaso(longitud - 1);
+    }
+
+    /**
+     * Regresa el <i>i</i>-ésimo paso de la trayectoria.
+     * @param i El índice del paso.
+     * @return La dirección del paso.
+     * @throws IndexOutOfBoundsException Si el índice es inválido.
+     */
+    public Direccion obtenerPaso(long i) {
+        if(i < 0 || i >= longitud)
+            throw new IndexOutOfBoundsException("El paso no está en la trayectoria.");
+        int desplazamiento = (int) (i & 31) * 2;
+        return CARDINALES[(int) (pasos[(int) (i >>> 5)] >>> desplazamiento) & 3];
+    }
+
+    /**
+     * Regresa el número de pasos de la trayectoria; el número de cuartos es
+     * uno más.
+     * @return El número de pasos de la trayectoria.
+     */
+    public long obtenerLongitud() {
+        return longitud;
+    }
+
+    /**
+     * Codifica la trayectoria en formato binario. Los bits que sobran en el
+     * último byte después del último paso son cero.
+     * @param peso El peso de la trayectoria.
+     * @return Un buffer con la trayectoria codificada, listo para leerse.
+     */
+    public ByteBuffer codifica(long peso) {
+        long bytes = (longitud + 3) / 4;
+        if(ENCABEZADO + bytes > Integer.MAX_VALUE - 8)
+            throw new IllegalStateException("La trayectoria es demasiado larga para codificarse.");
+        ByteBuffer buffer = ByteBuffer.allocate(ENCABEZADO + (int) bytes);
+        buffer.put(FORMATO.getBytes(StandardCharsets.US_ASCII));
+        buffer.putInt(inicioX).putInt(inicioY).putLong(peso).putLong(longitud);
+        // Los pasos de cada long ya están en el orden de los bytes menos significativos primero.
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        int completos = (int) (bytes / 8);
+        for(int i = 0; i < completos; i++)
+            buffer.putLong(pasos[i]);
+        for(int k = completos * 8; k < bytes; k++)
+            buffer.put((byte) (pasos[k >>> 3] >>> ((k & 7) * 8)));
+        // Después de eliminaUltimo pueden quedar pasos viejos tras el último;
+        // se limpian para que una trayectoria siempre se codifique igual.
+        int sobrantes = (int) (longitud & 3);
+        if(sobrantes != 0) {
+            int ultimo = buffer.position() - 1;
+            buffer.put(ultimo, (byte) (buffer.get(ultimo) & ((1 << 2 * sobrantes) - 1)));
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Decodifica una trayectoria en formato binario, como la regresa {@link #codifica}.
+     * @param buffer El buffer con la trayectoria codificada, listo para leerse.
+     * @return La trayectoria, sin su peso.
+     * @throws IllegalArgumentException Si el formato es inválido.
+     */
+    public static Trayectoria decodifica(ByteBuffer buffer) {
+        // El encabezado se escribe con el byte más significativo primero.
+        buffer.order(ByteOrder.BIG_ENDIAN);
+        byte[] formato = new byte[FORMATO.length()];
+        if(buffer.remaining() < ENCABEZADO)
+            throw new IllegalArgumentException("Formato de trayectoria inválido.");
+        buffer.get(formato);
+        if(!FORMATO.equals(new String(formato, StandardCharsets.US_ASCII)))
+            throw new IllegalArgumentException("Formato de trayectoria inválido.");
+        Trayectoria trayectoria = new Trayectoria(buffer.getInt(), buffer.getInt());
+        buffer.getLong();
+        long longitud = buffer.getLong();
+        if(longitud < 0 || (longitud + 3) / 4 != buffer.remaining())
+            throw new IllegalArgumentException("La longitud de la trayectoria no coincide con sus pasos.");
+        trayectoria.pasos = new long[Math.max(16, (int) ((longitud + 31) / 32))];
+        for(int k = 0; buffer.hasRemaining(); k++)
+            trayectoria.pasos[k >>> 3] |= (buffer.get() & 0xFFL) << ((k & 7) * 8);
+        trayectoria.longitud = longitud;
+        return trayectoria;
+    }
+
+    /**
+     * Codifica la trayectoria en formato de texto.
+     * @param peso El peso de la trayectoria.
+     * @return Los bytes en ASCII de la trayectoria, terminada en salto de línea.
+     */
+    public byte[] codificaTexto(long peso) {
+        byte[] encabezado = (inicioX + " " + inicioY + " " + peso + "\n").getBytes(StandardCharsets.US_ASCII);
+        if(encabezado.length + longitud + 1 > Integer.MAX_VALUE - 8)
+            throw new IllegalStateException("La trayectoria es demasiado larga para codificarse.");
+        byte[] texto = Arrays.copyOf(encabezado, encabezado.length + (int) longitud + 1);
+        int k = encabezado.length;
+        for(long i = 0; i < longitud; i++)
+            texto[k++] = LETRAS[(int) (pasos[(int) (i >>> 5)] >>> ((int) (i & 31) * 2)) & 3];
+        texto[k] = '\n';
+        return texto;
+    }
+
+    /**
+     * Regresa la coordenada x del cuarto inicial.
+     * @return La coordenada x del cuarto inicial.
+     */
+    public int obtenerInicioX() {
+        return inicioX;
+    }
+
+    /**
+     * Regresa la coordenada y del cuarto inicial.
+     * @return La coordenada y del cuarto inicial.
+     */
+    public int obtenerInicioY() {
+        return inicioY;
+    }
+}
@@ -0,0 +1,75 @@
+package mx.unam.ciencias.edd.maze;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * <p>Clase que escribe un trazo svg (<code>&lt;path&gt;</code>) hecho de
+ * segmentos horizontales y verticales con coordenadas enteras.</p>
+ * <p>Cada segmento se escribe con comandos relativos a donde terminó el
+ * anterior, así que ocupa unos cuantos bytes. El estilo no se escribe en el
+ * trazo: se fija una sola vez en el grupo que lo contiene, con {@link
+ * FigurasSVG#inicioGrupo}.</p>
+ */
+class TrazoSVG {
+    // Longitud a partir de la cual los datos se pasan al escritor.
+    private static final int LIMITE = 1 << 13;
+    private final Writer escritor;
+    private final StringBuilder datos = new StringBuilder(LIMITE + 32);
+    // Donde terminó el último segmento.
+    private int x;
+    private int y;
+    // Si todavía no se escribe ningún segmento.
+    private boolean vacio = true;
+
+    /**
+     * Empieza un trazo en el escritor dado.
+     * @param escritor Donde se escribe el trazo.
+     * @throws IOException Si ocurrió un error al escribir.
+     */
+    TrazoSVG(Writer escritor) throws IOException {
+        this.escritor = escritor;
+        escritor.write("<path d='");
+    }
+
+    /**
+     * Agrega un segmento horizontal o vertical. Si no empieza donde terminó
+     * el anterior, primero se mueve a su inicio.
+     * @param x1 Coordenada x inicial.
+     * @param y1 Coordenada y inicial.
+     * @param x2 Coordenada x final.
+     * @param y2 Coordenada y final; si es igual a la inicial el segmento es horizontal.
+     * @throws IOException Si ocurrió un error al escribir.
+     */
+    void segmento(int x1, int y1, int x2, int y2) throws IOException {
+        // El primer movimiento relativo de un trazo se toma como absoluto.
+        if(vacio || x1 != x || y1 != y) {
+            datos.append('m').append(x1 - x);
+            // Un signo negativo basta para separar los números.
+            if(y1 - y >= 0)
+                datos.append(' ');
+            datos.append(y1 - y);
+            vacio = false;
+        }
+        if(y1 == y2)
+            datos.append('h').append(x2 - x1);
+        else
+            datos.append('v').append(y2 - y1);
+        x = x2;
+        y = y2;
+        if(datos.length() >= LIMITE) {
+            escritor.append(datos);
+            datos.setLength(0);
+        }
+    }
+
+    /**
+     * Termina el trazo.
+     * @throws IOException Si ocurrió un error al escribir.
+     */
+    void termina() throws IOException {
+        datos.append("'/>\n");
+        escritor.append(datos);
+        datos.setLength(0);
+    }
+}